@@ -0,0 +1,64 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.Transaction;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌번호, 거래번호 조회 지연 시간이 행 수에 따라 일정한지 확인한다.
+ * ./gradlew jmh -PjmhIncludes=AccountLookupBenchmark 에 rowCount 를 10000000 까지 늘려 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AccountLookupBenchmark {
+    private static final long ID_OFFSET = 1_000_000_000L;
+
+    @Param({"10000", "1000000"})
+    private int rowCount;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private TransactionRepository transactionRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        accountRepository = context.getBean(AccountRepository.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO account (id, account_number, account_status, balance, version) " +
+                "SELECT X + ?, CAST(X + ? AS VARCHAR), 'IN_USE', 0, 0 " +
+                "FROM SYSTEM_RANGE(1, ?)", ID_OFFSET, ID_OFFSET, rowCount);
+        jdbcTemplate.update("INSERT INTO transaction (id, account_id, transaction_id, " +
+                "transaction_type, transaction_result, amount, balance_snapshot, transacted_at) " +
+                "SELECT X + ?, X + ?, 'bench' || X, 'USE', 'S', 10, 0, CURRENT_TIMESTAMP " +
+                "FROM SYSTEM_RANGE(1, ?)", ID_OFFSET, ID_OFFSET, rowCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Account> findByAccountNumber() {
+        return accountRepository.findByAccountNumber(
+                String.valueOf(ID_OFFSET + 1 + ThreadLocalRandom.current().nextInt(rowCount)));
+    }
+
+    @Benchmark
+    public Optional<Transaction> findByTransactionId() {
+        return transactionRepository.findByTransactionId(
+                "bench" + (1 + ThreadLocalRandom.current().nextInt(rowCount)));
+    }
+}
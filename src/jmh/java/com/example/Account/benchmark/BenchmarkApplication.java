@@ -0,0 +1,72 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.AccountApplication;
+import com.example.Account.domain.AccountUser;
+import com.example.Account.repository.AccountUserRepository;
+import com.example.Account.service.AccountService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트와 데이터 준비.
+ * 웹 서버 없이 H2, 내장 Redis 를 포함한 전체 컨텍스트를 띄운다.
+ */
+final class BenchmarkApplication {
+    static final long INITIAL_BALANCE = 1_000_000_000_000L;
+    private static final long SEED = 20221107L;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--logging.level.root=WARN"));
+        arguments.addAll(List.of(args));
+
+        return new SpringApplicationBuilder(AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(new String[0]));
+    }
+
+    record BenchmarkAccount(Long userId, String accountNumber) {
+    }
+
+    /**
+     * 사용자당 최대 10개씩 계좌를 만든다.
+     */
+    static List<BenchmarkAccount> createAccounts(ConfigurableApplicationContext context, int accountCount) {
+        AccountUserRepository accountUserRepository = context.getBean(AccountUserRepository.class);
+        AccountService accountService = context.getBean(AccountService.class);
+
+        List<BenchmarkAccount> accounts = new ArrayList<>(accountCount);
+        AccountUser accountUser = null;
+        for (int i = 0; i < accountCount; i++) {
+            if (i % 10 == 0) {
+                accountUser = accountUserRepository.save(
+                        AccountUser.builder().name("bench" + i / 10).build());
+            }
+            accounts.add(new BenchmarkAccount(accountUser.getId(),
+                    accountService.createAccount(accountUser.getId(), INITIAL_BALANCE)
+                            .getAccountNumber()));
+        }
+        return accounts;
+    }
+
+    /**
+     * 스레드마다 고정 시드의 난수로 계좌를 고른다.
+     * contentionRatio 비율만큼은 0번(hot) 계좌, 나머지는 전체 계좌 중 균등하게 고른다.
+     */
+    static SplittableRandom newRandom(int threadIndex) {
+        return new SplittableRandom(SEED + threadIndex);
+    }
+
+    static int pickAccount(SplittableRandom random, int accountCount, double contentionRatio) {
+        return random.nextDouble() < contentionRatio ? 0 : random.nextInt(accountCount);
+    }
+}
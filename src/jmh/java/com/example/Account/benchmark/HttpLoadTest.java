@@ -0,0 +1,127 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.AccountApplication;
+import com.example.Account.benchmark.BenchmarkApplication.BenchmarkAccount;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 잔액 사용 API 부하 테스트.
+ * 웹 서버를 띄우고 concurrency 개의 클라이언트가 동시에 요청을 보내 처리량, p50/p99 지연, 실패 수를 출력한다.
+ * 같은 조건에서 플랫폼 스레드 풀과 가상 스레드 모드를 각각 실행해 비교한다.
+ *
+ * <pre>
+ * ./gradlew loadTest -PloadConcurrency=800
+ * ./gradlew loadTest -PloadConcurrency=800 -PvirtualThreads=true   (Java 21)
+ * </pre>
+ */
+public class HttpLoadTest {
+    private static final int ACCOUNT_COUNT = 1000;
+    private static final int WARMUP_REQUESTS = 20;
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.parseInt(args[0]);
+        int requestsPerClient = Integer.parseInt(args[1]);
+        String[] applicationArgs = Arrays.copyOfRange(args, 2, args.length);
+
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--logging.level.root=WARN"));
+        arguments.addAll(List.of(applicationArgs));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountApplication.class)
+                .run(arguments.toArray(new String[0]))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<BenchmarkAccount> accounts = BenchmarkApplication.createAccounts(context, ACCOUNT_COUNT);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            URI uri = URI.create("http://localhost:" + port + "/transaction/use");
+
+            run(client, uri, accounts, concurrency, WARMUP_REQUESTS);
+            Result result = run(client, uri, accounts, concurrency, requestsPerClient);
+
+            System.out.printf("mode=%s concurrency=%d requests=%d errors=%d " +
+                            "throughput=%.1f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                    context.getEnvironment().getProperty("account.virtual-threads.enabled",
+                            Boolean.class, false) ? "virtual" : "platform",
+                    concurrency, result.latencies.length, result.errors,
+                    result.latencies.length * 1e9 / result.elapsedNanos,
+                    percentile(result.latencies, 0.50) / 1e6,
+                    percentile(result.latencies, 0.99) / 1e6,
+                    result.latencies[result.latencies.length - 1] / 1e6);
+        }
+    }
+
+    private static Result run(HttpClient client, URI uri, List<BenchmarkAccount> accounts,
+                              int concurrency, int requestsPerClient) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>(concurrency);
+        int[] errors = new int[concurrency];
+
+        for (int i = 0; i < concurrency; i++) {
+            int clientIndex = i;
+            futures.add(clients.submit(() -> {
+                SplittableRandom random = BenchmarkApplication.newRandom(clientIndex);
+                long[] latencies = new long[requestsPerClient];
+                start.await();
+                for (int j = 0; j < requestsPerClient; j++) {
+                    BenchmarkAccount account = accounts.get(random.nextInt(accounts.size()));
+                    HttpRequest request = HttpRequest.newBuilder(uri)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                                    "{\"userId\":%d,\"accountNumber\":\"%s\",\"amount\":1000}",
+                                    account.userId(), account.accountNumber())))
+                            .build();
+                    long begin = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request,
+                            HttpResponse.BodyHandlers.discarding());
+                    latencies[j] = System.nanoTime() - begin;
+                    if (response.statusCode() != 200) {
+                        errors[clientIndex]++;
+                    }
+                }
+                return latencies;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        long[] all = new long[concurrency * requestsPerClient];
+        for (int i = 0; i < concurrency; i++) {
+            System.arraycopy(futures.get(i).get(), 0, all, i * requestsPerClient, requestsPerClient);
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        clients.shutdown();
+
+        Arrays.sort(all);
+        return new Result(all, Arrays.stream(errors).sum(), elapsedNanos);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    private record Result(long[] latencies, int errors, long elapsedNanos) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.service.LockService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 계좌 락 획득/해제 비용. redis 모드는 LocalRedisConfig 의 내장 Redis 를 사용한다.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LockServiceBenchmark {
+    @Param({"1000"})
+    private int accountCount;
+
+    @Param({"0.0", "0.5"})
+    private double contentionRatio;
+
+    @Param({"redis", "local"})
+    private String lockMode;
+
+    private ConfigurableApplicationContext context;
+    private LockService lockService;
+    private String[] accountNumbers;
+    private final AtomicInteger threadIndex = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(LockServiceBenchmark benchmark) {
+            random = BenchmarkApplication.newRandom(benchmark.threadIndex.getAndIncrement());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--account.lock.mode=" + lockMode);
+        lockService = context.getBean(LockService.class);
+        accountNumbers = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accountNumbers[i] = String.valueOf(1_000_000_000L + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void lockAndUnlock(ThreadState state) {
+        String accountNumber = accountNumbers[BenchmarkApplication.pickAccount(
+                state.random, accountCount, contentionRatio)];
+        lockService.lock(accountNumber, 5000L, 15000L);
+        lockService.unlock(accountNumber);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.Transaction;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.service.TimeOrderedTransactionIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.Account.type.TransactionResult.S;
+import static com.example.Account.type.TransactionType.USE;
+
+/**
+ * 거래 엔티티 매핑과 거래 아이디 생성 비용 (스프링 컨텍스트 없음).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TransactionMappingBenchmark {
+    private Transaction transaction;
+    private TimeOrderedTransactionIdGenerator timeOrderedTransactionIdGenerator;
+
+    @Setup
+    public void setUp() {
+        transaction = Transaction.builder()
+                .account(Account.builder().accountNumber("1000000000").build())
+                .transactionType(USE)
+                .transactionResult(S)
+                .transactionId("0123456789abcdef0123456789abcdef")
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactedAt(LocalDateTime.now())
+                .build();
+        timeOrderedTransactionIdGenerator = new TimeOrderedTransactionIdGenerator(1);
+    }
+
+    @Benchmark
+    public TransactionDto fromEntity() {
+        return TransactionDto.fromEntity(transaction);
+    }
+
+    @Benchmark
+    public String uuidTransactionId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Benchmark
+    public String timeOrderedTransactionId() {
+        return timeOrderedTransactionIdGenerator.generate();
+    }
+}
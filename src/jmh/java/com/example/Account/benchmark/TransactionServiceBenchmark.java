@@ -0,0 +1,94 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.benchmark.BenchmarkApplication.BenchmarkAccount;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.service.LockService;
+import com.example.Account.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 잔액 사용/취소 서비스 호출 비용.
+ * lockedUseBalance 는 컨트롤러와 같이 계좌 락을 잡고 사용한다.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TransactionServiceBenchmark {
+    private static final long AMOUNT = 10L;
+
+    @Param({"1000"})
+    private int accountCount;
+
+    @Param({"0.0", "0.5"})
+    private double contentionRatio;
+
+    @Param({"redis"})
+    private String lockMode;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private LockService lockService;
+    private List<BenchmarkAccount> accounts;
+    private final AtomicInteger threadIndex = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(TransactionServiceBenchmark benchmark) {
+            random = BenchmarkApplication.newRandom(benchmark.threadIndex.getAndIncrement());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--account.lock.mode=" + lockMode);
+        transactionService = context.getBean(TransactionService.class);
+        lockService = context.getBean(LockService.class);
+        accounts = BenchmarkApplication.createAccounts(context, accountCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionDto useBalance(ThreadState state) {
+        BenchmarkAccount account = pick(state);
+        return transactionService.useBalance(account.userId(), account.accountNumber(), AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionDto useAndCancelBalance(ThreadState state) {
+        BenchmarkAccount account = pick(state);
+        TransactionDto used = transactionService.useBalance(
+                account.userId(), account.accountNumber(), AMOUNT);
+        return transactionService.cancelBalance(
+                used.getTransactionId(), account.accountNumber(), AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionDto lockedUseBalance(ThreadState state) {
+        BenchmarkAccount account = pick(state);
+        String accountNumber = account.accountNumber();
+        lockService.lock(accountNumber, 5000L, 15000L);
+        try {
+            return transactionService.useBalance(account.userId(), accountNumber, AMOUNT);
+        } finally {
+            lockService.unlock(accountNumber);
+        }
+    }
+
+    private BenchmarkAccount pick(ThreadState state) {
+        return accounts.get(BenchmarkApplication.pickAccount(
+                state.random, accountCount, contentionRatio));
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.Account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * Idempotency-Key 헤더가 있으면 같은 키의 재요청에 처음 성공한 응답을 그대로 돌려준다.
+ * 계좌 락보다 바깥에서 동작하므로 재요청은 락과 DB 를 거치지 않는다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface Idempotent {
+}
@@ -0,0 +1,14 @@
+package com.example.Account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * 낙관적 락 충돌 시 트랜잭션을 처음부터 다시 수행한다.
+ * 두 번째 인자가 계좌번호인 메서드에 사용한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface OptimisticLockRetry {
+}
@@ -0,0 +1,37 @@
+package com.example.Account.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String ACCOUNT_USER_CACHE = "accountUser";
+    public static final String ACCOUNT_OWNER_CACHE = "accountOwner";
+
+    @Value("${account.cache.maximum-size}")
+    private long maximumSize;
+
+    @Value("${account.cache.expire-after-write}")
+    private Duration expireAfterWrite;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager =
+                new CaffeineCacheManager(ACCOUNT_USER_CACHE, ACCOUNT_OWNER_CACHE);
+        // recordStats: actuator 가 cache.gets(hit/miss) 메트릭으로 노출
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats());
+
+        return cacheManager;
+    }
+}
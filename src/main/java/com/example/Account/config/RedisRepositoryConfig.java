@@ -4,10 +4,12 @@ import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@ConditionalOnProperty(name = "account.lock.mode", havingValue = "redis", matchIfMissing = true)
 public class RedisRepositoryConfig {
     @Value("${spring.redis.host}")
     private String redisHost;
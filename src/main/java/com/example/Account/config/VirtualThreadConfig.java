@@ -0,0 +1,46 @@
+package com.example.Account.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 가상 스레드 실행 모드 (Java 21 이상).
+ * Tomcat 요청 처리와 비동기 작업(applicationTaskExecutor)을 작업마다 새 가상 스레드에서 실행한다.
+ * 요청 스레드 수 제한(server.tomcat.threads.max)은 더 이상 적용되지 않고,
+ * 동시 요청 수는 server.tomcat.max-connections 와 DB 커넥션 풀 크기로 제한된다.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "account.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    private final ExecutorService requestExecutor =
+            VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+    private final ExecutorService taskExecutor =
+            VirtualThreads.newThreadPerTaskExecutor("task-vt-");
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        log.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(taskExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        requestExecutor.shutdown();
+        taskExecutor.shutdown();
+    }
+}
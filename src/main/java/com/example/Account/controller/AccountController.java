@@ -1,6 +1,8 @@
 package com.example.Account.controller;
 
 import com.example.Account.dto.AccountInfo;
+import com.example.Account.dto.AccountPortfolio;
+import com.example.Account.dto.BulkCreateAccount;
 import com.example.Account.dto.DeleteAccount;
 import com.example.Account.service.AccountService;
 import com.example.Account.dto.AccountDto;
@@ -28,6 +30,15 @@ public class AccountController {
 
     }
 
+    @PostMapping("/account/bulk")
+    public BulkCreateAccount.Response createAccounts(
+            @RequestBody @Valid BulkCreateAccount.Request request) {
+
+        return BulkCreateAccount.Response.from(
+                accountService.createAccounts(request.getItems()));
+
+    }
+
     @DeleteMapping("/account")
     public DeleteAccount.Response deleteAccount(
             @RequestBody @Valid DeleteAccount.Request request
@@ -55,8 +66,15 @@ public class AccountController {
 
     }
     
+    @GetMapping("/account/portfolio")
+    public AccountPortfolio.Response getPortfolio(
+            @RequestParam("user_id") Long userId
+    ) {
+        return accountService.getPortfolio(userId);
+    }
+
     @GetMapping("/account/{id}")
-    public Account getAccount(
+    public AccountDto getAccount(
             @PathVariable Long id) {
         return accountService.getAccount(id);
     }
@@ -1,36 +1,69 @@
 package com.example.Account.controller;
 
 import com.example.Account.aop.AccountLock;
+import com.example.Account.aop.Idempotent;
+import com.example.Account.dto.BatchTransaction;
 import com.example.Account.dto.CancelBalance;
 import com.example.Account.dto.QueryTransactionResponse;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.dto.TransactionHistory;
 import com.example.Account.dto.UseBalance;
 import com.example.Account.exception.AccountException;
+import com.example.Account.service.BalanceEngine;
+import com.example.Account.service.BatchTransactionService;
+import com.example.Account.service.FailedTransactionWriter;
+import com.example.Account.service.TransactionExportService;
 import com.example.Account.service.TransactionService;
+import com.example.Account.type.ExportFormat;
+import com.example.Account.type.TransactionResult;
+import com.example.Account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final BatchTransactionService batchTransactionService;
+    private final FailedTransactionWriter failedTransactionWriter;
+    private final TransactionExportService transactionExportService;
+    // account.balance.engine.enabled=true 일 때만 존재
+    private final ObjectProvider<BalanceEngine> balanceEngine;
+
     @PostMapping("/transaction/use")
+    @Idempotent
     @AccountLock
     public UseBalance.Response useBalance(
             @Valid @RequestBody UseBalance.Request request
     ) {
         try {
-            return UseBalance.Response.from(
-                    transactionService.useBalance(request.getUserId(),
-                            request.getAccountNumber(), request.getAmount())
-            );
+            BalanceEngine engine = balanceEngine.getIfAvailable();
+            TransactionDto transactionDto = engine != null
+                    ? engine.useBalance(request.getUserId(),
+                    request.getAccountNumber(), request.getAmount())
+                    : transactionService.useBalance(request.getUserId(),
+                    request.getAccountNumber(), request.getAmount());
+
+            return UseBalance.Response.from(transactionDto);
         } catch (AccountException e) {
             log.error("Failed to use balance");
 
-            transactionService.saveFailedUseTransaction(
+            failedTransactionWriter.write(USE,
                     request.getAccountNumber(),
                     request.getAmount()
             );
@@ -42,17 +75,24 @@ public class TransactionController {
     }
 
     @PostMapping("/transaction/cancel")
+    @Idempotent
     @AccountLock
     public CancelBalance.Response cancelBalance(
             @Valid @RequestBody CancelBalance.Request request) {
 
         try {
-            return CancelBalance.Response.from(transactionService.cancelBalance(request.getTransactionId(),
-                    request.getAccountNumber(), request.getAmount()));
+            BalanceEngine engine = balanceEngine.getIfAvailable();
+            TransactionDto transactionDto = engine != null
+                    ? engine.cancelBalance(request.getTransactionId(),
+                    request.getAccountNumber(), request.getAmount())
+                    : transactionService.cancelBalance(request.getTransactionId(),
+                    request.getAccountNumber(), request.getAmount());
+
+            return CancelBalance.Response.from(transactionDto);
         } catch (AccountException e) {
             log.error("Failed to cancel balance");
 
-            transactionService.saveFailedCancelTransaction(
+            failedTransactionWriter.write(CANCEL,
                     request.getAccountNumber(),
                     request.getAmount()
             );
@@ -61,12 +101,57 @@ public class TransactionController {
         }
     }
 
+    @PostMapping("/transaction/batch")
+    public BatchTransaction.Response batchTransaction(
+            @Valid @RequestBody BatchTransaction.Request request) {
+
+        return BatchTransaction.Response.from(
+                batchTransactionService.applyBatch(request.getItems())
+        );
+    }
+
+    @GetMapping("/transaction/export")
+    public void exportTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=transactions-" + date + "." + format.name().toLowerCase());
+
+        long count = transactionExportService.export(date, format, response.getOutputStream());
+        log.info("Exported {} transactions of {}", count, date);
+    }
+
     @GetMapping("/transaction/{transactionId}")
     public QueryTransactionResponse queryTransactionResponse(
-            @PathVariable String transactionId) {
+            @PathVariable String transactionId, WebRequest webRequest) {
 
-        return QueryTransactionResponse.from(
-                transactionService.queryTransaction(transactionId)
-        );
+        QueryTransactionResponse response =
+                transactionService.queryTransactionResponse(transactionId);
+        // If-None-Match 가 같으면 본문 없이 304 Not Modified
+        if (webRequest.checkNotModified(response.eTag())) {
+            return null;
+        }
+
+        return response;
+    }
+
+    @GetMapping("/account/{accountNumber}/transactions")
+    public TransactionHistory.Response getTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(value = "transaction_type", required = false) TransactionType transactionType,
+            @RequestParam(value = "transaction_result", required = false) TransactionResult transactionResult,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return transactionService.getTransactionHistory(accountNumber,
+                transactionType, transactionResult, from, to, cursor, size);
     }
 }
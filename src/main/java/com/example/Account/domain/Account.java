@@ -19,13 +19,16 @@ import static com.example.Account.type.ErrorCode.*;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_account_account_number", columnNames = "accountNumber"))
 @EntityListeners(AuditingEntityListener.class)
 public class Account {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_id_generator")
+    @SequenceGenerator(name = "account_id_generator", sequenceName = "hibernate_sequence", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountUser accountUser;
     private String accountNumber;
 
@@ -33,6 +36,10 @@ public class Account {
     private AccountStatus accountStatus;
     private Long balance;
 
+    // 낙관적 락 버전 (동시 수정 시 OptimisticLockingFailureException)
+    @Version
+    private Long version;
+
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
 
@@ -16,10 +16,22 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transaction_transaction_id", columnNames = "transactionId"),
+        @UniqueConstraint(name = "uk_transaction_cancelled_transaction_id",
+                columnNames = "cancelledTransactionId")},
+        indexes = {
+                @Index(name = "idx_transaction_account_transacted_at",
+                        columnList = "account_id, transactedAt"),
+                @Index(name = "idx_transaction_account_number_transacted_at_id",
+                        columnList = "accountNumber, transactedAt, id"),
+                @Index(name = "idx_transaction_transacted_at_id",
+                        columnList = "transactedAt, id")})
 @EntityListeners(AuditingEntityListener.class)
 public class Transaction {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_id_generator")
+    @SequenceGenerator(name = "transaction_id_generator", sequenceName = "hibernate_sequence", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -27,12 +39,16 @@ public class Transaction {
     @Enumerated(EnumType.STRING)
     private TransactionResult transactionResult;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account account;
+    // 조회 시 account 조인 없이 거래 테이블만 읽도록 계좌번호를 함께 저장
+    private String accountNumber;
     private Long amount;
     private Long balanceSnapshot;
 
     private String transactionId;
+    // 성공한 취소 거래가 되돌린 원 거래 아이디. 유니크 인덱스로 한 거래가 두 번 취소되지 않게 한다
+    private String cancelledTransactionId;
     private LocalDateTime transactedAt;
 
     @CreatedDate
@@ -0,0 +1,11 @@
+package com.example.Account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AccountOwner {
+    private Long accountId;
+    private Long userId;
+}
@@ -0,0 +1,30 @@
+package com.example.Account.dto;
+
+import com.example.Account.type.AccountStatus;
+import lombok.*;
+
+import java.util.List;
+
+public class AccountPortfolio {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        private String accountNumber;
+        private Long balance;
+        private AccountStatus accountStatus;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private Long userId;
+        private Long totalBalance;
+        private List<Item> accounts;
+    }
+}
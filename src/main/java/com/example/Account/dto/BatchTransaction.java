@@ -0,0 +1,92 @@
+package com.example.Account.dto;
+
+import com.example.Account.type.ErrorCode;
+import com.example.Account.type.TransactionResult;
+import com.example.Account.type.TransactionType;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.*;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class BatchTransaction {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @Valid
+        @NotEmpty
+        @Size(max = 1000)
+        private List<Item> items;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        @NotNull
+        private TransactionType transactionType;
+
+        // 잔액 사용(USE) 시 필수
+        @Min(1)
+        private Long userId;
+
+        // 잔액 사용 취소(CANCEL) 시 필수
+        private String transactionId;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String accountNumber;
+
+        @NotNull
+        @Min(10)
+        @Max(1000_000_000)
+        private Long amount;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemResult {
+        private String accountNumber;
+        private TransactionType transactionType;
+        private TransactionResult transactionResult;
+        private String transactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+        private ErrorCode errorCode;
+
+        public static ItemResult from(TransactionDto transactionDto) {
+            return ItemResult.builder()
+                    .accountNumber(transactionDto.getAccountNumber())
+                    .transactionType(transactionDto.getTransactionType())
+                    .transactionResult(transactionDto.getTransactionResult())
+                    .transactionId(transactionDto.getTransactionId())
+                    .amount(transactionDto.getAmount())
+                    .transactedAt(transactionDto.getTransactedAt())
+                    .errorCode(transactionDto.getErrorCode())
+                    .build();
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response {
+        private List<ItemResult> results;
+
+        public static Response from(List<TransactionDto> transactionDtos) {
+            return new Response(transactionDtos.stream()
+                    .map(ItemResult::from)
+                    .collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.Account.dto;
+
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class BulkCreateAccount {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @Valid
+        @NotEmpty
+        @Size(max = 100_000)
+        private List<Item> items;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        @NotNull
+        @Min(1)
+        private Long userId;
+
+        @NotNull
+        @Min(0)
+        private Long initialBalance;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response {
+        private List<CreateAccount.Response> accounts;
+
+        public static Response from(List<AccountDto> accountDtos) {
+            return new Response(accountDtos.stream()
+                    .map(CreateAccount.Response::from)
+                    .collect(Collectors.toList()));
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.Account.dto;
 
+import com.example.Account.domain.Transaction;
 import com.example.Account.type.TransactionResult;
 import com.example.Account.type.TransactionType;
 import lombok.*;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
 @Getter
@@ -18,8 +21,10 @@ public class QueryTransactionResponse {
     private String transactionId;
     private Long amount;
     private LocalDateTime transactedAt;
+    // 성공한 사용 거래가 취소되었는지 (취소 거래의 cancelledTransactionId 로 판단)
+    private boolean cancelled;
 
-    public static QueryTransactionResponse from(TransactionDto transactionDto) {
+    public static QueryTransactionResponse from(TransactionDto transactionDto, boolean cancelled) {
         return QueryTransactionResponse.builder()
                 .accountNumber(transactionDto.getAccountNumber())
                 .transactionType(transactionDto.getTransactionType())
@@ -27,6 +32,29 @@ public class QueryTransactionResponse {
                 .transactionId(transactionDto.getTransactionId())
                 .amount(transactionDto.getAmount())
                 .transactedAt(transactionDto.getTransactedAt())
+                .cancelled(cancelled)
                 .build();
     }
+
+    // 계좌번호는 거래 테이블의 비정규화 컬럼을 쓰므로 account 를 읽지 않는다. 막 저장한 거래는 취소되지 않았다
+    public static QueryTransactionResponse fromEntity(Transaction transaction) {
+        return QueryTransactionResponse.builder()
+                .accountNumber(transaction.getAccountNumber())
+                .transactionType(transaction.getTransactionType())
+                .transactionResult(transaction.getTransactionResult())
+                .transactionId(transaction.getTransactionId())
+                .amount(transaction.getAmount())
+                .transactedAt(transaction.getTransactedAt())
+                .build();
+    }
+
+    /**
+     * 응답 내용으로 만든 ETag. 내용이 같으면 같은 값이다.
+     */
+    public String eTag() {
+        String content = String.join("|", accountNumber, String.valueOf(transactionType),
+                String.valueOf(transactionResult), transactionId, String.valueOf(amount),
+                String.valueOf(transactedAt), String.valueOf(cancelled));
+        return "\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.Account.dto;
 
 import com.example.Account.domain.Transaction;
+import com.example.Account.type.ErrorCode;
 import com.example.Account.type.TransactionResult;
 import com.example.Account.type.TransactionType;
 import lombok.*;
@@ -23,6 +24,22 @@ public class TransactionDto {
     private Long balanceSnapshot;
     private LocalDateTime transactedAt;
 
+    // 일괄 거래에서 실패한 항목의 사유
+    private ErrorCode errorCode;
+
+    // 거래 확인 조회용 JPQL 프로젝션 생성자
+    public TransactionDto(String accountNumber, String transactionId,
+                          TransactionType transactionType,
+                          TransactionResult transactionResult,
+                          Long amount, LocalDateTime transactedAt) {
+        this.accountNumber = accountNumber;
+        this.transactionId = transactionId;
+        this.transactionType = transactionType;
+        this.transactionResult = transactionResult;
+        this.amount = amount;
+        this.transactedAt = transactedAt;
+    }
+
     public static TransactionDto fromEntity(Transaction transaction) {
         return TransactionDto.builder()
                 .accountNumber(transaction.getAccount().getAccountNumber())
@@ -0,0 +1,83 @@
+package com.example.Account.dto;
+
+import com.example.Account.exception.AccountException;
+import com.example.Account.type.TransactionResult;
+import com.example.Account.type.TransactionType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+import static com.example.Account.type.ErrorCode.INVALID_REQUEST;
+
+public class TransactionHistory {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        // 다음 페이지 커서 계산용
+        @JsonIgnore
+        private Long id;
+
+        private String transactionId;
+        private TransactionType transactionType;
+        private TransactionResult transactionResult;
+        private Long amount;
+        private Long balanceSnapshot;
+        private LocalDateTime transactedAt;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String accountNumber;
+        private List<Item> transactions;
+        private boolean hasNext;
+        private String nextCursor;
+    }
+
+    /**
+     * 마지막으로 읽은 거래의 (transactedAt, id)를 담은 keyset 커서.
+     * 클라이언트에는 불투명한 문자열로만 노출한다.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+        private static final String DELIMITER = "_";
+
+        private final LocalDateTime transactedAt;
+        private final Long id;
+
+        public static Cursor from(Item item) {
+            return new Cursor(item.getTransactedAt(), item.getId());
+        }
+
+        public String encode() {
+            String raw = transactedAt + DELIMITER + id;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor),
+                        StandardCharsets.UTF_8);
+                int index = raw.lastIndexOf(DELIMITER);
+                return new Cursor(LocalDateTime.parse(raw.substring(0, index)),
+                        Long.parseLong(raw.substring(index + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException
+                     | DateTimeParseException e) {
+                throw new AccountException(INVALID_REQUEST);
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.Account.exception;
 
 import com.example.Account.dto.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -12,10 +14,14 @@ import static com.example.Account.type.ErrorCode.INVALID_REQUEST;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(AccountException.class)
     public ErrorResponse handleAccountException(AccountException e) {
         log.error("{} is occured", e.getErrorCode());
+        meterRegistry.counter("account.error", "errorCode", e.getErrorCode().name()).increment();
 
         return new ErrorResponse(e.getErrorCode(), e.getErrorMessage());
     }
@@ -23,6 +29,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ErrorResponse handleDataIntegrityViolationException (DataIntegrityViolationException e) {
         log.error("DataIntegrityViolationException is occurred", e);
+        meterRegistry.counter("account.error", "errorCode", INVALID_REQUEST.name()).increment();
 
         return new ErrorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
     }
@@ -30,6 +37,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ErrorResponse handleMethodArgumentNotValidException (MethodArgumentNotValidException e) {
         log.error("MethodArgumentNotValidException is occurred", e);
+        meterRegistry.counter("account.error", "errorCode", INVALID_REQUEST.name()).increment();
 
         return new ErrorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
     }
@@ -37,6 +45,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     public ErrorResponse handleException(Exception e) {
         log.error("Exception is occured", e);
+        meterRegistry.counter("account.error", "errorCode", INTERNAL_SERVER_ERROR.name()).increment();
 
         return new ErrorResponse(
                 INTERNAL_SERVER_ERROR, INTERNAL_SERVER_ERROR.getDescription()
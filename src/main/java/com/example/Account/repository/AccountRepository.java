@@ -3,19 +3,92 @@ package com.example.Account.repository;
 import com.example.Account.domain.Account;
 import com.example.Account.domain.AccountUser;
 import com.example.Account.dto.AccountDto;
+import com.example.Account.dto.AccountOwner;
+import com.example.Account.dto.AccountPortfolio;
+import com.example.Account.dto.UserAccountCount;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static com.example.Account.config.CacheConfig.ACCOUNT_OWNER_CACHE;
+
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Integer countByAccountUser(AccountUser accountUser);
 
-    Optional<Account> findFirstByOrderByIdDes();
+    // 사용자별 계좌 수를 한 번에 센다. 계좌가 없는 사용자는 0, 없는 사용자는 결과에 없다
+    @Query("select new com.example.Account.dto.UserAccountCount(u.id, count(a.id)) " +
+            "from AccountUser u left join Account a on a.accountUser.id = u.id " +
+            "where u.id in :userIds group by u.id")
+    List<UserAccountCount> countAccountsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query(value = "SELECT NEXT VALUE FOR account_number_seq", nativeQuery = true)
+    Long getNextAccountNumberBlock();
 
     Optional<Account> findByAccountNumber(String accountNumber);
 
     List<Account> findByAccountUser(AccountUser accountUser);
+
+    // 조회 API는 엔티티 대신 필요한 컬럼만 DTO로 바로 읽는다
+    @Query("select new com.example.Account.dto.AccountDto(" +
+            "a.accountUser.id, a.accountNumber, a.balance, a.registeredAt, a.unRegisteredAt) " +
+            "from Account a where a.id = :id")
+    Optional<AccountDto> findDtoById(@Param("id") Long id);
+
+    @Query("select new com.example.Account.dto.AccountDto(" +
+            "a.accountUser.id, a.accountNumber, a.balance, a.registeredAt, a.unRegisteredAt) " +
+            "from Account a where a.accountUser.id = :userId order by a.id")
+    List<AccountDto> findDtoByAccountUserId(@Param("userId") Long userId);
+
+    // 사용자와 계좌를 한 번에 읽는다. 사용자가 없으면 빈 목록, 계좌가 없으면 계좌 컬럼이 null 인 한 행
+    @Query("select new com.example.Account.dto.AccountPortfolio$Item(" +
+            "a.accountNumber, a.balance, a.accountStatus) " +
+            "from AccountUser u left join Account a on a.accountUser.id = u.id " +
+            "where u.id = :userId order by a.id")
+    List<AccountPortfolio.Item> findPortfolioByUserId(@Param("userId") Long userId);
+
+    // 계좌 소유주는 바뀌지 않으므로 캐시한다 (없는 계좌는 캐시하지 않음)
+    @Cacheable(cacheNames = ACCOUNT_OWNER_CACHE, unless = "#result == null")
+    @Query("select new com.example.Account.dto.AccountOwner(a.id, a.accountUser.id) " +
+            "from Account a where a.accountNumber = :accountNumber")
+    Optional<AccountOwner> findOwnerByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("select a.balance from Account a where a.accountNumber = :accountNumber")
+    Long findBalanceByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // 잔액이 충분하고 사용 중인 계좌일 때만 차감한다. 반영된 행 수를 반환
+    // 같은 영속성 컨텍스트에서 앞서 저장한 거래 행이 버려지지 않도록 먼저 flush 한다
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1, " +
+            "a.updatedAt = :updatedAt " +
+            "where a.accountNumber = :accountNumber and a.balance >= :amount " +
+            "and a.accountStatus = com.example.Account.type.AccountStatus.IN_USE")
+    int decreaseBalance(@Param("accountNumber") String accountNumber,
+                        @Param("amount") Long amount,
+                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1, " +
+            "a.updatedAt = :updatedAt " +
+            "where a.accountNumber = :accountNumber")
+    int increaseBalance(@Param("accountNumber") String accountNumber,
+                        @Param("amount") Long amount,
+                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    // 잔액 엔진의 write-behind 저장. 앞서 저장한 거래 행이 버려지지 않도록 먼저 flush 한다
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = :balance, a.version = a.version + 1, " +
+            "a.updatedAt = :updatedAt " +
+            "where a.accountNumber = :accountNumber")
+    int updateBalance(@Param("accountNumber") String accountNumber,
+                      @Param("balance") Long balance,
+                      @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -1,9 +1,30 @@
 package com.example.Account.repository;
 
 import com.example.Account.domain.AccountUser;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.Account.config.CacheConfig.ACCOUNT_USER_CACHE;
+
 @Repository
 public interface AccountUserRepository extends JpaRepository<AccountUser, Long> {
+    // 사용자 정보는 변경되지 않으므로 캐시한다 (없는 사용자는 캐시하지 않음)
+    @Override
+    @Cacheable(cacheNames = ACCOUNT_USER_CACHE, unless = "#result == null")
+    Optional<AccountUser> findById(Long id);
+
+    // 계좌 수를 세기 전에 사용자 행을 잠가 같은 사용자의 동시 계좌 생성이 최대 계좌 수를 넘지 않게 한다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AccountUser> findForUpdateById(Long id);
+
+    // 여러 사용자를 잠글 때는 교착을 피하려고 id 순으로 잠근다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<AccountUser> findForUpdateByIdInOrderByIdAsc(Collection<Long> ids);
 }
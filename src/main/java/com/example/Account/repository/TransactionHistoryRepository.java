@@ -0,0 +1,23 @@
+package com.example.Account.repository;
+
+import com.example.Account.dto.TransactionHistory;
+import com.example.Account.type.TransactionResult;
+import com.example.Account.type.TransactionType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TransactionHistoryRepository {
+    /**
+     * 계좌의 거래 내역을 최신순으로 limit 건 읽는다. null 인 조건은 쿼리에 넣지 않고,
+     * cursor 가 있으면 그 거래 다음 행부터 읽는다.
+     */
+    List<TransactionHistory.Item> findHistory(
+            String accountNumber,
+            TransactionType transactionType,
+            TransactionResult transactionResult,
+            LocalDateTime from,
+            LocalDateTime to,
+            TransactionHistory.Cursor cursor,
+            int limit);
+}
@@ -0,0 +1,76 @@
+package com.example.Account.repository;
+
+import com.example.Account.domain.Transaction;
+import com.example.Account.dto.TransactionHistory;
+import com.example.Account.type.TransactionResult;
+import com.example.Account.type.TransactionType;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 거래 내역 keyset 조회.
+ * 조건은 값이 있는 것만 붙여서 (accountNumber, transactedAt, id) 인덱스 범위 조건이 그대로 남게 하고,
+ * 다음 페이지는 transactedAt <= 커서 시각을 범위 시작점으로 삼아 커서 이후 행만 읽는다 (OFFSET 없음).
+ */
+public class TransactionHistoryRepositoryImpl implements TransactionHistoryRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionHistory.Item> findHistory(
+            String accountNumber,
+            TransactionType transactionType,
+            TransactionResult transactionResult,
+            LocalDateTime from,
+            LocalDateTime to,
+            TransactionHistory.Cursor cursor,
+            int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionHistory.Item> query = cb.createQuery(TransactionHistory.Item.class);
+        Root<Transaction> t = query.from(Transaction.class);
+        Path<LocalDateTime> transactedAt = t.get("transactedAt");
+        Path<Long> id = t.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(t.get("accountNumber"), accountNumber));
+        if (cursor != null) {
+            // (transactedAt, id) < (cursorAt, cursorId)
+            predicates.add(cb.lessThanOrEqualTo(transactedAt, cursor.getTransactedAt()));
+            predicates.add(cb.or(
+                    cb.lessThan(transactedAt, cursor.getTransactedAt()),
+                    cb.lessThan(id, cursor.getId())));
+        }
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(transactedAt, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(transactedAt, to));
+        }
+        if (transactionType != null) {
+            predicates.add(cb.equal(t.get("transactionType"), transactionType));
+        }
+        if (transactionResult != null) {
+            predicates.add(cb.equal(t.get("transactionResult"), transactionResult));
+        }
+
+        query.select(cb.construct(TransactionHistory.Item.class,
+                        id, t.get("transactionId"), t.get("transactionType"),
+                        t.get("transactionResult"), t.get("amount"), t.get("balanceSnapshot"),
+                        transactedAt))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(transactedAt), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
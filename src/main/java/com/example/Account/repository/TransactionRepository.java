@@ -1,11 +1,30 @@
 package com.example.Account.repository;
 
 import com.example.Account.domain.Transaction;
+import com.example.Account.dto.TransactionDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>,
+        TransactionHistoryRepository {
     Optional<Transaction> findByTransactionId(String transactionId);
 
+    // cancelledTransactionId 유니크 인덱스 한 번 조회로 취소 여부를 확인한다 (거래 내역 크기와 무관)
+    boolean existsByCancelledTransactionId(String cancelledTransactionId);
+
+    @Query("select t.transactionId from Transaction t where t.transactionId in :transactionIds")
+    List<String> findExistingTransactionIds(
+            @Param("transactionIds") Collection<String> transactionIds);
+
+    // 거래 확인 응답에 필요한 컬럼만 거래 테이블에서 바로 읽어온다
+    @Query("select new com.example.Account.dto.TransactionDto(" +
+            "t.accountNumber, t.transactionId, t.transactionType, t.transactionResult, " +
+            "t.amount, t.transactedAt) " +
+            "from Transaction t where t.transactionId = :transactionId")
+    Optional<TransactionDto> findDtoByTransactionId(@Param("transactionId") String transactionId);
 }
@@ -0,0 +1,95 @@
+package com.example.Account.service;
+
+import com.example.Account.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 계좌번호 발급기 (hi/lo 방식).
+ * DB 시퀀스에서 블록 번호(hi)를 받아 blockSize 개의 계좌번호를 미리 확보하고,
+ * 블록 안에서는 메모리에서 순차 발급한다. 노드가 달라도 블록이 겹치지 않으므로 중복이 없다.
+ * 재시작 시 사용하지 않은 블록의 나머지 번호는 건너뛴다.
+ */
+@Component
+public class AccountNumberAllocator {
+    private static final long ACCOUNT_NUMBER_BASE = 1_000_000_000L;
+
+    private final AccountRepository accountRepository;
+    private final long blockSize;
+    // DB 조회 중에 가상 스레드가 캐리어 스레드에 고정(pinning)되지 않도록 synchronized 대신 사용
+    private final ReentrantLock reserveLock = new ReentrantLock();
+
+    private volatile Block block;
+
+    public AccountNumberAllocator(
+            AccountRepository accountRepository,
+            @Value("${account.number.block-size:100}") long blockSize) {
+        this.accountRepository = accountRepository;
+        this.blockSize = blockSize;
+    }
+
+    public String allocate() {
+        while (true) {
+            Block current = block;
+            if (current != null) {
+                long next = current.next.getAndIncrement();
+                if (next < current.end) {
+                    return String.valueOf(next);
+                }
+            }
+            reserve(current);
+        }
+    }
+
+    /**
+     * count 개의 계좌번호를 블록에서 구간 단위로 한꺼번에 떼어 온다.
+     * 번호마다 DB 를 조회하지 않고 블록 하나에 시퀀스 조회 한 번이면 된다.
+     */
+    public List<String> allocate(int count) {
+        List<String> numbers = new ArrayList<>(count);
+        while (true) {
+            Block current = block;
+            if (current != null) {
+                int wanted = count - numbers.size();
+                long start = current.next.getAndAdd(wanted);
+                long end = Math.min(start + wanted, current.end);
+                for (long next = start; next < end; next++) {
+                    numbers.add(String.valueOf(next));
+                }
+                if (numbers.size() == count) {
+                    return numbers;
+                }
+            }
+            reserve(current);
+        }
+    }
+
+    private void reserve(Block exhausted) {
+        reserveLock.lock();
+        try {
+            if (block != exhausted) {
+                return;
+            }
+            long start = ACCOUNT_NUMBER_BASE +
+                    accountRepository.getNextAccountNumberBlock() * blockSize;
+            block = new Block(start, start + blockSize);
+        } finally {
+            reserveLock.unlock();
+        }
+    }
+
+    private static class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
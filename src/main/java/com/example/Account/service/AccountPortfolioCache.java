@@ -0,0 +1,56 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.AccountPortfolio;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 사용자별 계좌 요약 캐시. 계좌 생성/해지와 잔액 변경이 커밋되면 해당 사용자 항목을 지운다.
+ * 커밋 전에 읽어 넣은 값도 커밋 뒤에 지워지므로 오래된 잔액이 남지 않는다.
+ * account.cache.portfolio.enabled=false 이면 매번 DB 에서 읽는다.
+ */
+@Component
+public class AccountPortfolioCache {
+    private final boolean enabled;
+    private final Cache<Long, AccountPortfolio.Response> portfolios;
+
+    public AccountPortfolioCache(
+            @Value("${account.cache.portfolio.enabled:true}") boolean enabled,
+            @Value("${account.cache.portfolio.maximum-size:10000}") long maximumSize,
+            @Value("${account.cache.portfolio.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.enabled = enabled;
+        this.portfolios = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public AccountPortfolio.Response get(Long userId,
+                                         Function<Long, AccountPortfolio.Response> loader) {
+        return enabled ? portfolios.get(userId, loader) : loader.apply(userId);
+    }
+
+    public void evictAfterCommit(Long userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            portfolios.invalidate(userId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                portfolios.invalidate(userId);
+            }
+        });
+    }
+}
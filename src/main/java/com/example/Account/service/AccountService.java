@@ -3,38 +3,65 @@ package com.example.Account.service;
 import com.example.Account.domain.Account;
 import com.example.Account.domain.AccountUser;
 import com.example.Account.dto.AccountDto;
+import com.example.Account.dto.AccountPortfolio;
+import com.example.Account.dto.BulkCreateAccount;
 import com.example.Account.exception.AccountException;
 import com.example.Account.repository.AccountRepository;
 import com.example.Account.repository.AccountUserRepository;
 import com.example.Account.type.AccountStatus;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.validator.constraints.NotBlank;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
+import static com.example.Account.config.CacheConfig.ACCOUNT_OWNER_CACHE;
 import static com.example.Account.type.AccountStatus.*;
 import static com.example.Account.type.ErrorCode.*;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
+    private static final int MAX_ACCOUNT_PER_USER = 10;
+    // 사용자 id IN 목록 하나의 최대 크기 (DB 바인딩 파라미터 수 제한)
+    private static final int USER_ID_CHUNK_SIZE = 1000;
+    private static final String INSERT_ACCOUNT =
+            "INSERT INTO account (id, account_user_id, account_number, account_status, balance, version, " +
+                    "registered_at, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, 0, ?, ?, ?)";
+
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountPortfolioCache accountPortfolioCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityIdAllocator entityIdAllocator;
+    // account.balance.engine.enabled=true 일 때만 존재
+    private final ObjectProvider<BalanceEngine> balanceEngine;
+
+    @Value("${account.bulk.batch-size:1000}")
+    private int bulkBatchSize;
 
     @Transactional
     public AccountDto createAccount(Long userId, Long initialBalance) {
 
-        // 사용자 없는 경우
-        AccountUser accountUser = accountUserRepository.findById(userId)
+        // 사용자 없는 경우 (같은 사용자의 동시 생성은 사용자 행 잠금으로 차례로 처리)
+        AccountUser accountUser = accountUserRepository.findForUpdateById(userId)
                 .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
 
         // 계좌가 10개인 경우
@@ -42,10 +69,8 @@ public class AccountService {
             throw new AccountException(MAX_ACCOUNT_PER_USER_10);
         }
 
-        //계좌번호 10자리 랜덤 숫자 (순차 증가 방식)
-        String newAccountNumber = accountRepository.findFirstByOrderByIdDes()
-                .map(account -> String.valueOf((Integer.parseInt(account.getAccountNumber())) + 1))
-                .orElse("1000000000");
+        //계좌번호 10자리 숫자 (블록 단위 순차 발급)
+        String newAccountNumber = accountNumberAllocator.allocate();
 
         Account account =  accountRepository.save(
                 Account.builder()
@@ -56,21 +81,106 @@ public class AccountService {
                         .registeredAt(LocalDateTime.now())
                         .build()
         );
+        accountPortfolioCache.evictAfterCommit(userId);
 
         return AccountDto.fromEntity(account);
 
     }
     
+    /**
+     * 여러 계좌를 한 트랜잭션에서 만든다. 하나라도 실패하면 모두 만들지 않는다.
+     * 사용자 확인과 사용자별 계좌 수 제한은 사용자 행을 id 순으로 잠근 뒤 사용자별 계좌 수를 묶어 센 쿼리로 처리하고,
+     * 계좌번호는 블록 단위로, id 는 Account 엔티티의 id 생성기에서 한꺼번에 받아 JDBC 배치로 INSERT 한다.
+     */
+    @Transactional
+    public List<AccountDto> createAccounts(List<BulkCreateAccount.Item> items) {
+        Map<Long, Integer> requested = new HashMap<>();
+        for (BulkCreateAccount.Item item : items) {
+            requested.merge(item.getUserId(), 1, Integer::sum);
+        }
+
+        Map<Long, Long> existing = new HashMap<>();
+        List<Long> userIds = new ArrayList<>(requested.keySet());
+        Collections.sort(userIds);
+        for (int from = 0; from < userIds.size(); from += USER_ID_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + USER_ID_CHUNK_SIZE, userIds.size()));
+            accountUserRepository.findForUpdateByIdInOrderByIdAsc(chunk);
+            accountRepository.countAccountsByUserIds(chunk)
+                    .forEach(count -> existing.put(count.getUserId(), count.getAccountCount()));
+        }
+
+        requested.forEach((userId, count) -> {
+            Long accountCount = existing.get(userId);
+            if (accountCount == null) {
+                throw new AccountException(USER_NOT_FOUND);
+            }
+            if (accountCount + count > MAX_ACCOUNT_PER_USER) {
+                throw new AccountException(MAX_ACCOUNT_PER_USER_10);
+            }
+        });
+
+        List<String> accountNumbers = accountNumberAllocator.allocate(items.size());
+        List<Long> ids = entityIdAllocator.allocate(Account.class, items.size());
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp registeredAt = Timestamp.valueOf(now);
+
+        List<AccountDto> accountDtos = new ArrayList<>(items.size());
+        List<Object[]> rows = new ArrayList<>(Math.min(items.size(), bulkBatchSize));
+        for (int i = 0; i < items.size(); i++) {
+            BulkCreateAccount.Item item = items.get(i);
+            rows.add(new Object[]{
+                    ids.get(i),
+                    item.getUserId(),
+                    accountNumbers.get(i),
+                    IN_USE.name(),
+                    item.getInitialBalance(),
+                    registeredAt,
+                    registeredAt,
+                    registeredAt
+            });
+            if (rows.size() == bulkBatchSize) {
+                jdbcTemplate.batchUpdate(INSERT_ACCOUNT, rows);
+                rows = new ArrayList<>(bulkBatchSize);
+            }
+
+            accountDtos.add(AccountDto.builder()
+                    .userId(item.getUserId())
+                    .accountNumber(accountNumbers.get(i))
+                    .balance(item.getInitialBalance())
+                    .registeredAt(now)
+                    .build());
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ACCOUNT, rows);
+        }
+
+        requested.keySet().forEach(accountPortfolioCache::evictAfterCommit);
+        return accountDtos;
+    }
+
     @Transactional
-    public Account getAccount(Long id) {
+    public AccountDto getAccount(Long id) {
         if (id < 0) {
             throw new RuntimeException("Minus");
         }
-        return accountRepository.findById(id).get();
+        return accountRepository.findDtoById(id)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
     }
 
     @Transactional
+    @CacheEvict(cacheNames = ACCOUNT_OWNER_CACHE, key = "#accountNumber")
     public AccountDto deleteAccount(Long userId, String accountNumber) {
+        BalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine != null) {
+            // 엔진이 받은 거래가 DB 에 저장된 뒤 계좌 shard 에서 해지하고, 엔진이 읽어 둔 계좌를 버린다
+            return engine.executeExclusively(accountNumber,
+                    () -> unregisterAccount(userId, accountNumber));
+        }
+
+        return unregisterAccount(userId, accountNumber);
+    }
+
+    private AccountDto unregisterAccount(Long userId, String accountNumber) {
         // 사용자 없는 경우
         AccountUser accountUser = accountUserRepository.findById(userId)
                 .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
@@ -85,6 +195,7 @@ public class AccountService {
         account.setUnRegisteredAt(LocalDateTime.now());
 
         accountRepository.save(account);
+        accountPortfolioCache.evictAfterCommit(userId);
 
         return AccountDto.fromEntity(account);
 
@@ -111,14 +222,41 @@ public class AccountService {
     @Transactional
     public List<AccountDto> getAccountsByUserId(Long userId) {
         // 사용자 없는 경우
-        AccountUser accountUser = accountUserRepository.findById(userId)
+        accountUserRepository.findById(userId)
                 .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
 
-        List<Account> accounts = accountRepository
-                .findByAccountUser(accountUser);
+        return accountRepository.findDtoByAccountUserId(userId);
 
-        return accounts.stream().map(AccountDto::fromEntity)
-                .collect(Collectors.toList());
+    }
+
+    /**
+     * 사용자의 계좌번호, 잔액, 상태와 총 잔액. 사용자 확인과 계좌 조회를 한 쿼리로 처리한다.
+     */
+    public AccountPortfolio.Response getPortfolio(Long userId) {
+        return accountPortfolioCache.get(userId, this::loadPortfolio);
+    }
+
+    private AccountPortfolio.Response loadPortfolio(Long userId) {
+        List<AccountPortfolio.Item> rows = accountRepository.findPortfolioByUserId(userId);
+        if (rows.isEmpty()) {
+            throw new AccountException(USER_NOT_FOUND);
+        }
+
+        List<AccountPortfolio.Item> accounts = new ArrayList<>(rows.size());
+        long totalBalance = 0L;
+        for (AccountPortfolio.Item row : rows) {
+            // 계좌가 없는 사용자는 계좌 컬럼이 null 인 행 하나만 돌아온다
+            if (row.getAccountNumber() == null) {
+                continue;
+            }
+            accounts.add(row);
+            totalBalance += row.getBalance();
+        }
 
+        return AccountPortfolio.Response.builder()
+                .userId(userId)
+                .totalBalance(totalBalance)
+                .accounts(accounts)
+                .build();
     }
 }
@@ -0,0 +1,505 @@
+package com.example.Account.service;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.AccountUser;
+import com.example.Account.domain.Transaction;
+import com.example.Account.dto.QueryTransactionResponse;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.AccountUserRepository;
+import com.example.Account.repository.TransactionRepository;
+import com.example.Account.type.AccountStatus;
+import com.example.Account.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static com.example.Account.type.ErrorCode.*;
+import static com.example.Account.type.TransactionResult.S;
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
+
+/**
+ * 메모리 잔액 엔진 (단일 노드 전용, account.lock.mode=none 과 함께 사용).
+ * 계좌는 계좌번호 해시로 고른 shard 스레드 하나에서만 변경되므로 락 없이 잔액을 검증하고 바꾼다.
+ * 거래는 저널(write-ahead log)에 기록된 뒤에 응답하고, 거래 행과 잔액은 백그라운드에서 모아서 DB 에 저장한다.
+ * shard 는 저널에 쓰기만 하고 디스크에 내려가기를 기다리지 않고 다음 거래를 처리하며, 호출한 스레드가 기다린다.
+ * 그래서 한 계좌에 몰린 거래도 한 번의 fsync 에 여러 건이 묶인다.
+ * 저널이 디스크에 내려가지 못하면 메모리 잔액을 믿을 수 없으므로 더 이상 거래를 받지 않는다 (재시작 시 저널로 복구).
+ * 시작 시 DB 에 반영되지 않은 저널 기록을 다시 저장한다.
+ * 엔진이 읽어 둔 계좌의 잔액은 엔진이 기준이므로 잔액 변경은 모두 엔진을 거쳐야 한다
+ * (account.balance.atomic-update 와 함께 쓸 수 없음). 계좌 해지처럼 상태를 바꾸는 작업은
+ * executeExclusively 로 계좌 shard 에서 실행하고, 끝나면 읽어 둔 계좌를 버려 DB 에서 다시 읽는다.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "account.balance.engine.enabled", havingValue = "true")
+public class BalanceEngine {
+    // executeExclusively 가 계좌의 거래가 DB 에 저장되기를 기다리는 최대 시간(ms)
+    private static final long EXCLUSIVE_WAIT_MILLIS = 10_000L;
+
+    private final AccountRepository accountRepository;
+    private final AccountUserRepository accountUserRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final BalanceJournal journal;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountPortfolioCache accountPortfolioCache;
+    private final TransactionQueryCache transactionQueryCache;
+    private final int batchSize;
+    private final long flushInterval;
+
+    private final ExecutorService[] shards;
+    private final Map<String, AccountLedger> ledgers = new ConcurrentHashMap<>();
+    // DB 에 아직 저장되지 않은 거래 (취소 시 원 거래 조회용)
+    private final Map<String, JournalRecord> unflushed = new ConcurrentHashMap<>();
+    // DB 에 아직 저장되지 않은 취소 거래가 되돌린 원 거래 아이디 (중복 취소 확인용)
+    private final Set<String> unflushedCancels = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<JournalRecord> pending = new LinkedBlockingQueue<>();
+
+    // sequence 발급과 미반영 sequence 등록, 계좌별 미반영 거래 수를 함께 보호한다
+    private final ReentrantLock sequenceLock = new ReentrantLock();
+    private final Condition persisted = sequenceLock.newCondition();
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    private long lastSequence;
+
+    private volatile boolean running;
+    private volatile boolean journalFailed;
+    private Thread flusherThread;
+
+    public BalanceEngine(
+            AccountRepository accountRepository,
+            AccountUserRepository accountUserRepository,
+            TransactionRepository transactionRepository,
+            TransactionIdGenerator transactionIdGenerator,
+            BalanceJournal journal,
+            TransactionTemplate transactionTemplate,
+            AccountPortfolioCache accountPortfolioCache,
+            TransactionQueryCache transactionQueryCache,
+            @Value("${account.balance.atomic-update:false}") boolean atomicUpdate,
+            @Value("${account.balance.engine.shards:8}") int shardCount,
+            @Value("${account.balance.engine.batch-size:500}") int batchSize,
+            @Value("${account.balance.engine.flush-interval:50}") long flushInterval) {
+        if (atomicUpdate) {
+            // 조건부 UPDATE 로 바꾼 DB 잔액은 엔진이 저장하는 잔액에 덮어써진다
+            throw new IllegalStateException(
+                    "account.balance.atomic-update cannot be used with the balance engine");
+        }
+        this.accountRepository = accountRepository;
+        this.accountUserRepository = accountUserRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.journal = journal;
+        this.transactionTemplate = transactionTemplate;
+        this.accountPortfolioCache = accountPortfolioCache;
+        this.transactionQueryCache = transactionQueryCache;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.shards = new ExecutorService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            String name = "balance-shard-" + i;
+            shards[i] = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name));
+        }
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        List<JournalRecord> records = journal.recover();
+        if (!records.isEmpty()) {
+            log.info("Replaying {} journal records", records.size());
+            persist(records, true);
+        }
+        lastSequence = journal.lastSequence();
+        journal.checkpoint(lastSequence);
+
+        running = true;
+        flusherThread = new Thread(this::flushLoop, "balance-flusher");
+        flusherThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+        for (ExecutorService shard : shards) {
+            shard.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        running = false;
+        if (flusherThread != null) {
+            flusherThread.join();
+        }
+    }
+
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        AccountUser accountUser = accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+
+        return executeDurably(accountNumber, () -> {
+            AccountLedger ledger = getLedger(accountNumber);
+            if (!Objects.equals(accountUser.getId(), ledger.userId)) {
+                throw new AccountException(USER_ACCOUNT_UNMATCH);
+            }
+            if (ledger.accountStatus == AccountStatus.UNREGISTERED) {
+                throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
+            }
+            if (ledger.balance < amount) {
+                throw new AccountException(AMOUNT_EXCEED_BALANCE);
+            }
+
+            return apply(ledger, USE, amount, ledger.balance - amount, null);
+        });
+    }
+
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        JournalRecord original = unflushed.get(transactionId);
+        TransactionDto transaction = original != null ? toDto(original)
+                : transactionRepository.findDtoByTransactionId(transactionId)
+                .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
+
+        if (!Objects.equals(amount, transaction.getAmount())) {
+            throw new AccountException(CANCEL_MUST_FULLY);
+        }
+        if (!Objects.equals(accountNumber, transaction.getAccountNumber())) {
+            throw new AccountException(TRANSACTION_ACCOUNT_UNMATCH);
+        }
+        if (transaction.getTransactionType() != USE || transaction.getTransactionResult() != S) {
+            throw new AccountException(TRANSACTION_NOT_CANCELLABLE);
+        }
+
+        // 같은 원 거래의 취소는 같은 계좌 shard 에서 차례로 처리되므로 여기서 확인하면 중복되지 않는다
+        TransactionDto cancelled = executeDurably(accountNumber, () -> {
+            if (unflushedCancels.contains(transactionId)
+                    || transactionRepository.existsByCancelledTransactionId(transactionId)) {
+                throw new AccountException(TRANSACTION_ALREADY_CANCELLED);
+            }
+            AccountLedger ledger = getLedger(accountNumber);
+            return apply(ledger, CANCEL, amount, ledger.balance + amount, transactionId);
+        });
+        // 취소를 응답하기 전에 원 거래의 확인 응답을 지워 취소 여부를 다시 읽게 한다
+        transactionQueryCache.evictAfterCommit(transactionId);
+        return cancelled;
+    }
+
+    /**
+     * 응답은 했지만 아직 DB 에 저장하지 않은 거래. 저장이 끝나면 DB 에서 조회된다.
+     */
+    public Optional<TransactionDto> findUnflushed(String transactionId) {
+        return Optional.ofNullable(unflushed.get(transactionId)).map(BalanceEngine::toDto);
+    }
+
+    /**
+     * 응답은 했지만 아직 DB 에 저장하지 않은 취소가 있는 원 거래인지
+     */
+    public boolean hasUnflushedCancel(String transactionId) {
+        return unflushedCancels.contains(transactionId);
+    }
+
+    /**
+     * 계좌 상태를 바꾸는 작업을 계좌 shard 에서 다른 거래 없이 트랜잭션 안에서 실행한다.
+     * 엔진이 받은 이 계좌의 거래가 모두 DB 에 저장된 뒤에 실행하므로 operation 은 DB 의 잔액을 그대로 믿어도 된다.
+     * 실행 후 읽어 둔 계좌를 버려 다음 거래는 바뀐 상태를 DB 에서 다시 읽는다.
+     */
+    public <T> T executeExclusively(String accountNumber, Supplier<T> operation) {
+        return execute(accountNumber, () -> {
+            AccountLedger ledger = ledgers.get(accountNumber);
+            if (ledger != null) {
+                awaitPersisted(ledger);
+            }
+            try {
+                return transactionTemplate.execute(status -> operation.get());
+            } finally {
+                ledgers.remove(accountNumber);
+            }
+        });
+    }
+
+    // shard 스레드에서 호출. flusher 가 이 계좌의 거래를 모두 저장할 때까지 기다린다
+    private void awaitPersisted(AccountLedger ledger) {
+        sequenceLock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(EXCLUSIVE_WAIT_MILLIS);
+            while (ledger.unpersisted > 0) {
+                if (remaining <= 0) {
+                    throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+                }
+                remaining = persisted.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(INTERNAL_SERVER_ERROR);
+        } finally {
+            sequenceLock.unlock();
+        }
+    }
+
+    private <T> T execute(String accountNumber, Supplier<T> operation) {
+        return await(() -> CompletableFuture.supplyAsync(operation, shard(accountNumber)));
+    }
+
+    // shard 는 거래를 저널에 쓰고 바로 다음 거래로 넘어가고, 호출한 스레드가 저널이 디스크에 내려가기를 기다린다
+    private TransactionDto executeDurably(String accountNumber,
+                                          Supplier<CompletableFuture<TransactionDto>> operation) {
+        return await(() -> CompletableFuture.supplyAsync(operation, shard(accountNumber))
+                .thenCompose(Function.identity()));
+    }
+
+    private ExecutorService shard(String accountNumber) {
+        return shards[Math.floorMod(accountNumber.hashCode(), shards.length)];
+    }
+
+    private <T> T await(Supplier<CompletableFuture<T>> submit) {
+        try {
+            return submit.get().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } catch (RejectedExecutionException e) {
+            throw new AccountException(INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // shard 스레드에서만 호출
+    private AccountLedger getLedger(String accountNumber) {
+        AccountLedger ledger = ledgers.get(accountNumber);
+        if (ledger == null) {
+            Account account = accountRepository.findByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+            ledger = new AccountLedger(account);
+            ledgers.put(accountNumber, ledger);
+        }
+        return ledger;
+    }
+
+    // shard 스레드에서만 호출. 저널에 쓴 뒤 메모리 잔액을 바로 바꾸고, 저널이 디스크에 내려가면 완료되는 future 를 반환한다
+    private CompletableFuture<TransactionDto> apply(AccountLedger ledger, TransactionType transactionType,
+                                                    long amount, long balance, String cancelledTransactionId) {
+        if (journalFailed) {
+            throw new AccountException(INTERNAL_SERVER_ERROR);
+        }
+
+        JournalRecord record;
+        sequenceLock.lock();
+        try {
+            record = new JournalRecord(++lastSequence, transactionType,
+                    transactionIdGenerator.generate(), ledger.accountId, ledger.accountNumber,
+                    amount, balance, LocalDateTime.now(), cancelledTransactionId);
+            inFlight.add(record.getSequence());
+            ledger.unpersisted++;
+        } finally {
+            sequenceLock.unlock();
+        }
+
+        CompletableFuture<Void> durable = journal.appendAsync(record);
+        if (durable.isCompletedExceptionally()) {
+            // 쓰지도 못한 기록은 메모리 잔액에 반영하지 않는다
+            try {
+                durable.join();
+            } catch (CompletionException e) {
+                log.error("Failed to append journal record", e.getCause());
+            }
+            completed(Collections.singletonList(record));
+            throw new AccountException(INTERNAL_SERVER_ERROR);
+        }
+
+        // 같은 계좌의 다음 거래가 이 거래를 반영한 잔액을 보도록 디스크에 내려가기 전에 바꾼다
+        ledger.balance = balance;
+        unflushed.put(record.getTransactionId(), record);
+        if (cancelledTransactionId != null) {
+            unflushedCancels.add(cancelledTransactionId);
+        }
+
+        // 저널은 쓴 순서대로 완료되므로 pending 에도 계좌별 순서대로 들어간다
+        return durable.handle((ignored, e) -> {
+            if (e != null) {
+                // 이미 바꾼 메모리 잔액을 되돌릴 수 없으므로 엔진을 멈추고, 이 기록은 DB 에 저장하지 않는다
+                log.error("Journal record was not synced, balance engine stops accepting transactions", e);
+                journalFailed = true;
+                completed(Collections.singletonList(record));
+                throw new AccountException(INTERNAL_SERVER_ERROR);
+            }
+            pending.add(record);
+            return toDto(record);
+        });
+    }
+
+    private void flushLoop() {
+        List<JournalRecord> batch = new ArrayList<>(batchSize);
+        while (running || !pending.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    JournalRecord first = pending.poll(flushInterval, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    pending.drainTo(batch, batchSize - 1);
+                }
+
+                persist(batch, false);
+                completed(batch);
+                journal.checkpoint(checkpointSequence());
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Exception e) {
+                // 저장에 실패한 배치는 버리지 않고 다시 시도한다 (저널에는 남아 있음)
+                log.error("Failed to persist {} journal records", batch.size(), e);
+                if (!running) {
+                    log.warn("Stopping with unpersisted records, they will be replayed on startup");
+                    return;
+                }
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * 거래 행을 저장하고 계좌별 마지막 잔액을 반영한다.
+     * 복구 시에는 이미 저장된 거래를 건너뛴다 (잔액은 절대값이라 다시 반영해도 같다).
+     */
+    private void persist(List<JournalRecord> records, boolean recovery) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> existing = recovery
+                    ? new HashSet<>(transactionRepository.findExistingTransactionIds(
+                    records.stream().map(JournalRecord::getTransactionId)
+                            .collect(Collectors.toList())))
+                    : Collections.emptySet();
+
+            List<Transaction> transactions = new ArrayList<>(records.size());
+            Map<String, JournalRecord> latest = new HashMap<>();
+            for (JournalRecord record : records) {
+                latest.put(record.getAccountNumber(), record);
+                if (existing.contains(record.getTransactionId())) {
+                    continue;
+                }
+                transactions.add(Transaction.builder()
+                        .transactionType(record.getTransactionType())
+                        .transactionResult(S)
+                        .account(accountRepository.getReferenceById(record.getAccountId()))
+                        .accountNumber(record.getAccountNumber())
+                        .amount(record.getAmount())
+                        .balanceSnapshot(record.getBalanceSnapshot())
+                        .transactionId(record.getTransactionId())
+                        .cancelledTransactionId(record.getCancelledTransactionId())
+                        .transactedAt(record.getTransactedAt())
+                        .build());
+            }
+            transactionRepository.saveAll(transactions);
+
+            LocalDateTime now = LocalDateTime.now();
+            latest.values().forEach(record -> accountRepository.updateBalance(
+                    record.getAccountNumber(), record.getBalanceSnapshot(), now));
+        });
+
+        // 저장한 거래의 확인 응답을 넣고, 취소된 원 거래의 응답은 지운다
+        // (복구 중에는 취소가 이미 DB 에 있을 수 있으므로 넣지 않는다)
+        if (!recovery) {
+            for (JournalRecord record : records) {
+                boolean cancelled = record.getTransactionType() == USE
+                        && unflushedCancels.contains(record.getTransactionId());
+                transactionQueryCache.putAfterCommit(
+                        QueryTransactionResponse.from(toDto(record), cancelled));
+            }
+        }
+        records.stream()
+                .map(JournalRecord::getCancelledTransactionId)
+                .filter(Objects::nonNull)
+                .forEach(transactionQueryCache::evictAfterCommit);
+
+        // DB 잔액이 바뀌었으므로 소유주의 계좌 요약 캐시를 지운다 (복구 중에는 읽어 둔 계좌가 없다)
+        records.stream()
+                .map(record -> ledgers.get(record.getAccountNumber()))
+                .filter(Objects::nonNull)
+                .map(ledger -> ledger.userId)
+                .distinct()
+                .forEach(accountPortfolioCache::evictAfterCommit);
+    }
+
+    private void completed(List<JournalRecord> records) {
+        sequenceLock.lock();
+        try {
+            for (JournalRecord record : records) {
+                AccountLedger ledger = ledgers.get(record.getAccountNumber());
+                if (ledger != null) {
+                    ledger.unpersisted--;
+                }
+                inFlight.remove(record.getSequence());
+                unflushed.remove(record.getTransactionId());
+                if (record.getCancelledTransactionId() != null) {
+                    unflushedCancels.remove(record.getCancelledTransactionId());
+                }
+            }
+            persisted.signalAll();
+        } finally {
+            sequenceLock.unlock();
+        }
+    }
+
+    // 이 값 이하의 sequence 는 모두 DB 에 반영되었다
+    private long checkpointSequence() {
+        sequenceLock.lock();
+        try {
+            return inFlight.isEmpty() ? lastSequence : inFlight.first() - 1;
+        } finally {
+            sequenceLock.unlock();
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(flushInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static TransactionDto toDto(JournalRecord record) {
+        return TransactionDto.builder()
+                .accountNumber(record.getAccountNumber())
+                .transactionId(record.getTransactionId())
+                .transactionType(record.getTransactionType())
+                .transactionResult(S)
+                .amount(record.getAmount())
+                .balanceSnapshot(record.getBalanceSnapshot())
+                .transactedAt(record.getTransactedAt())
+                .build();
+    }
+
+    private static class AccountLedger {
+        private final long accountId;
+        private final String accountNumber;
+        private final Long userId;
+        private final AccountStatus accountStatus;
+        private long balance;
+        // 저널에 기록했지만 아직 DB 에 저장하지 않은 거래 수 (sequenceLock 으로 보호)
+        private int unpersisted;
+
+        private AccountLedger(Account account) {
+            this.accountId = account.getId();
+            this.accountNumber = account.getAccountNumber();
+            this.userId = account.getAccountUser().getId();
+            this.accountStatus = account.getAccountStatus();
+            this.balance = account.getBalance();
+        }
+    }
+}
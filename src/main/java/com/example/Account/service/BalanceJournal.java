@@ -0,0 +1,44 @@
+package com.example.Account.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 잔액 엔진의 write-ahead log.
+ * 거래는 저널에 기록된 뒤에만 응답하고, DB 에 반영된 기록은 checkpoint 로 표시한다.
+ */
+public interface BalanceJournal {
+    /**
+     * 기록이 디스크에 내려간 뒤에 반환한다.
+     */
+    void append(JournalRecord record) throws IOException;
+
+    /**
+     * 기록을 쓰고 바로 반환한다. 돌려준 future 는 기록이 디스크에 내려가면 완료되고, 실패하면 IOException 으로 끝난다.
+     * 같은 스레드가 호출한 순서대로 디스크에 내려간다. 기본 구현은 append 를 그대로 호출한다.
+     */
+    default CompletableFuture<Void> appendAsync(JournalRecord record) {
+        try {
+            append(record);
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * sequence 이하의 기록이 모두 DB 에 반영되었음을 표시한다.
+     */
+    void checkpoint(long sequence) throws IOException;
+
+    /**
+     * 마지막 checkpoint 이후의 기록을 sequence 순서로 돌려준다.
+     */
+    List<JournalRecord> recover() throws IOException;
+
+    /**
+     * 저널에 남아 있는 가장 큰 sequence (없으면 checkpoint).
+     */
+    long lastSequence();
+}
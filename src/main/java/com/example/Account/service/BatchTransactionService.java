@@ -0,0 +1,148 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.BatchTransaction;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.Account.type.ErrorCode.INTERNAL_SERVER_ERROR;
+import static com.example.Account.type.ErrorCode.INVALID_REQUEST;
+import static com.example.Account.type.TransactionResult.F;
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
+
+/**
+ * 일괄 거래. 항목을 계좌번호별로 묶어 계좌마다 락을 한 번만 잡고,
+ * 계좌 단위 트랜잭션 하나로 순서대로 처리한다. 결과는 요청 항목 순서대로 돌려준다.
+ * 잔액 엔진을 쓰면 엔진이 잔액의 기준이므로 항목마다 엔진으로 처리한다 (계좌 shard 가 순서를 보장하므로 락 없음).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchTransactionService {
+    private static final long BATCH_LOCK_WAIT_TIME = 5000L;
+    private static final String BATCH_LOCK_KEY = "BatchTransactionService.applyBatch";
+
+    private final LockService lockService;
+    private final LockLeasePolicy lockLeasePolicy;
+    private final TransactionService transactionService;
+    private final FailedTransactionWriter failedTransactionWriter;
+    // account.balance.engine.enabled=true 일 때만 존재
+    private final ObjectProvider<BalanceEngine> balanceEngine;
+
+    public List<TransactionDto> applyBatch(List<BatchTransaction.Item> items) {
+        Map<String, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            indexesByAccount.computeIfAbsent(items.get(i).getAccountNumber(),
+                    accountNumber -> new ArrayList<>()).add(i);
+        }
+
+        BalanceEngine engine = balanceEngine.getIfAvailable();
+        TransactionDto[] results = new TransactionDto[items.size()];
+        indexesByAccount.forEach((accountNumber, indexes) -> {
+            List<BatchTransaction.Item> accountItems =
+                    indexes.stream().map(items::get).collect(Collectors.toList());
+            List<TransactionDto> accountResults = engine != null
+                    ? applyAccountBatch(engine, accountNumber, accountItems)
+                    : applyAccountBatch(accountNumber, accountItems);
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = accountResults.get(i);
+            }
+        });
+
+        return Arrays.asList(results);
+    }
+
+    private List<TransactionDto> applyAccountBatch(String accountNumber,
+                                                   List<BatchTransaction.Item> items) {
+        try {
+            lockService.lock(accountNumber, BATCH_LOCK_WAIT_TIME,
+                    lockLeasePolicy.getLeaseTime(BATCH_LOCK_KEY));
+        } catch (AccountException e) {
+            return failAll(accountNumber, items, e.getErrorCode());
+        }
+
+        long start = System.nanoTime();
+        try {
+            return transactionService.applyBatch(accountNumber, items);
+        } catch (AccountException e) {
+            log.error("Failed to apply batch for accountNumber : {}", accountNumber);
+            return failAll(accountNumber, items, e.getErrorCode());
+        } catch (OptimisticLockingFailureException e) {
+            log.error("Failed to apply batch for accountNumber : {}", accountNumber, e);
+            return failAll(accountNumber, items, ACCOUNT_TRANSACTION_LOCK);
+        } catch (RuntimeException e) {
+            log.error("Failed to apply batch for accountNumber : {}", accountNumber, e);
+            return failAll(accountNumber, items, INTERNAL_SERVER_ERROR);
+        } finally {
+            lockService.unlock(accountNumber);
+            lockLeasePolicy.record(BATCH_LOCK_KEY,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private List<TransactionDto> applyAccountBatch(BalanceEngine engine, String accountNumber,
+                                                   List<BatchTransaction.Item> items) {
+        List<TransactionDto> results = new ArrayList<>(items.size());
+        for (BatchTransaction.Item item : items) {
+            try {
+                results.add(applyItem(engine, accountNumber, item));
+            } catch (AccountException e) {
+                writeFailedTransaction(accountNumber, item);
+                results.add(failed(accountNumber, item, e.getErrorCode()));
+            }
+        }
+
+        return results;
+    }
+
+    private static TransactionDto applyItem(BalanceEngine engine, String accountNumber,
+                                            BatchTransaction.Item item) {
+        if (item.getTransactionType() == USE && item.getUserId() != null) {
+            return engine.useBalance(item.getUserId(), accountNumber, item.getAmount());
+        }
+        if (item.getTransactionType() == CANCEL && item.getTransactionId() != null) {
+            return engine.cancelBalance(item.getTransactionId(), accountNumber, item.getAmount());
+        }
+
+        throw new AccountException(INVALID_REQUEST);
+    }
+
+    private void writeFailedTransaction(String accountNumber, BatchTransaction.Item item) {
+        try {
+            failedTransactionWriter.write(item.getTransactionType(), accountNumber, item.getAmount());
+        } catch (AccountException e) {
+            // 없는 계좌의 실패 거래는 남기지 않는다
+            log.warn("Failed to save failed batch item for accountNumber : {}", accountNumber);
+        }
+    }
+
+    private static TransactionDto failed(String accountNumber, BatchTransaction.Item item,
+                                         ErrorCode errorCode) {
+        return TransactionDto.builder()
+                .accountNumber(accountNumber)
+                .transactionType(item.getTransactionType())
+                .transactionResult(F)
+                .amount(item.getAmount())
+                .errorCode(errorCode)
+                .build();
+    }
+
+    private static List<TransactionDto> failAll(String accountNumber,
+                                                List<BatchTransaction.Item> items,
+                                                ErrorCode errorCode) {
+        return items.stream()
+                .map(item -> failed(accountNumber, item, errorCode))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.Account.service;
+
+import com.example.Account.domain.Transaction;
+import com.example.Account.type.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.HibernateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.Account.type.TransactionResult.F;
+import static com.example.Account.type.TransactionType.USE;
+
+/**
+ * 실패 거래 저장.
+ * async 모드에서는 실패 거래를 제한된 크기의 버퍼에 넣고, 백그라운드 스레드가 JDBC 배치로 저장한다.
+ * 버퍼가 가득 차면 offer-timeout 만큼 기다리고(backpressure), 그래도 자리가 없으면 호출 스레드에서 바로 저장한다.
+ * 배치 저장이 실패하면 몇 번 다시 시도하고, 그래도 실패하면 한 건씩 저장해 나머지 거래는 살린다.
+ * 저장하지 못한 거래(없는 계좌 포함)는 로그와 account.failed.transaction.dropped 로 남긴다.
+ * 종료 시 버퍼에 남은 실패 거래를 모두 저장한 뒤 멈춘다.
+ */
+@Slf4j
+@Component
+public class FailedTransactionWriter {
+    private static final String INSERT_FAILED_TRANSACTION =
+            "INSERT INTO transaction (id, transaction_type, transaction_result, account_id, account_number, " +
+                    "amount, balance_snapshot, transaction_id, transacted_at, created_at, updated_at) " +
+                    "SELECT ?, ?, ?, a.id, a.account_number, ?, a.balance, ?, ?, ?, ? " +
+                    "FROM account a WHERE a.account_number = ?";
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+
+    private final TransactionService transactionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityIdAllocator entityIdAllocator;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final MeterRegistry meterRegistry;
+    private final boolean async;
+    private final int batchSize;
+    private final long flushInterval;
+    private final long offerTimeout;
+    private final BlockingQueue<FailedTransaction> buffer;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public FailedTransactionWriter(
+            TransactionService transactionService,
+            JdbcTemplate jdbcTemplate,
+            EntityIdAllocator entityIdAllocator,
+            TransactionIdGenerator transactionIdGenerator,
+            MeterRegistry meterRegistry,
+            @Value("${account.failed-transaction.async:false}") boolean async,
+            @Value("${account.failed-transaction.buffer-size:10000}") int bufferSize,
+            @Value("${account.failed-transaction.batch-size:500}") int batchSize,
+            @Value("${account.failed-transaction.flush-interval:100}") long flushInterval,
+            @Value("${account.failed-transaction.offer-timeout:50}") long offerTimeout) {
+        this.transactionService = transactionService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityIdAllocator = entityIdAllocator;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.meterRegistry = meterRegistry;
+        this.async = async;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!async) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::writeLoop, "failed-transaction-writer");
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.join();
+        // 종료 직전에 버퍼에 들어온 거래
+        drainRemaining();
+    }
+
+    public void write(TransactionType transactionType, String accountNumber, Long amount) {
+        if (!async) {
+            if (transactionType == USE) {
+                transactionService.saveFailedUseTransaction(accountNumber, amount);
+            } else {
+                transactionService.saveFailedCancelTransaction(accountNumber, amount);
+            }
+            return;
+        }
+
+        FailedTransaction failedTransaction = new FailedTransaction(
+                transactionType, accountNumber, amount, LocalDateTime.now());
+        try {
+            if (running && buffer.offer(failedTransaction, offerTimeout, TimeUnit.MILLISECONDS)) {
+                // 넣는 사이에 종료되었으면 writer 스레드가 이미 끝났을 수 있으므로 직접 저장한다
+                if (!running) {
+                    drainRemaining();
+                }
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.warn("Failed transaction buffer is full, writing synchronously");
+        writeBatch(Collections.singletonList(failedTransaction));
+    }
+
+    private void writeLoop() {
+        List<FailedTransaction> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                FailedTransaction first = buffer.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void drainRemaining() {
+        List<FailedTransaction> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            writeBatch(remaining);
+        }
+    }
+
+    // 예외를 던지지 않는다. 저장하지 못한 거래는 로그와 메트릭으로 남긴다
+    private void writeBatch(List<FailedTransaction> batch) {
+        List<Object[]> rows = null;
+        for (int attempt = 1; attempt <= MAX_BATCH_ATTEMPTS; attempt++) {
+            try {
+                if (rows == null) {
+                    rows = toRows(batch);
+                }
+                int[] counts = jdbcTemplate.batchUpdate(INSERT_FAILED_TRANSACTION, rows);
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        dropped(batch.get(i), "account_not_found", null);
+                    }
+                }
+                return;
+            } catch (DataAccessException | HibernateException e) {
+                log.warn("Failed to write {} failed transactions, attempt : {}",
+                        batch.size(), attempt, e);
+                if (attempt < MAX_BATCH_ATTEMPTS) {
+                    sleepQuietly();
+                }
+            }
+        }
+
+        if (rows == null) {
+            // id 를 받지 못했다
+            batch.forEach(failedTransaction -> dropped(failedTransaction, "write_error", null));
+            return;
+        }
+
+        // 배치 전체가 계속 실패하면 한 건씩 저장해 문제 있는 거래만 버린다
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                if (jdbcTemplate.update(INSERT_FAILED_TRANSACTION, rows.get(i)) == 0) {
+                    dropped(batch.get(i), "account_not_found", null);
+                }
+            } catch (DataAccessException e) {
+                dropped(batch.get(i), "write_error", e);
+            }
+        }
+    }
+
+    // id 는 Transaction 엔티티와 같은 id 생성기에서 받는다
+    private List<Object[]> toRows(List<FailedTransaction> batch) {
+        List<Long> ids = entityIdAllocator.allocate(Transaction.class, batch.size());
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            FailedTransaction failedTransaction = batch.get(i);
+            Timestamp transactedAt = Timestamp.valueOf(failedTransaction.transactedAt);
+            rows.add(new Object[]{
+                    ids.get(i),
+                    failedTransaction.transactionType.name(),
+                    F.name(),
+                    failedTransaction.amount,
+                    transactionIdGenerator.generate(),
+                    transactedAt,
+                    transactedAt,
+                    transactedAt,
+                    failedTransaction.accountNumber
+            });
+        }
+        return rows;
+    }
+
+    private void dropped(FailedTransaction failedTransaction, String reason, Exception e) {
+        log.error("Dropped failed transaction, reason : {}, type : {}, accountNumber : {}, amount : {}",
+                reason, failedTransaction.transactionType, failedTransaction.accountNumber,
+                failedTransaction.amount, e);
+        meterRegistry.counter("account.failed.transaction.dropped", "reason", reason).increment();
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(flushInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class FailedTransaction {
+        private final TransactionType transactionType;
+        private final String accountNumber;
+        private final Long amount;
+        private final LocalDateTime transactedAt;
+
+        private FailedTransaction(TransactionType transactionType, String accountNumber,
+                                  Long amount, LocalDateTime transactedAt) {
+            this.transactionType = transactionType;
+            this.accountNumber = accountNumber;
+            this.amount = amount;
+            this.transactedAt = transactedAt;
+        }
+    }
+}
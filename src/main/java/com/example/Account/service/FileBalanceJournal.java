@@ -0,0 +1,144 @@
+package com.example.Account.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * 단일 파일 저널. 기록마다 [길이][내용] 으로 이어 쓰고 매번 fsync 한다.
+ * 모든 기록이 DB 에 반영되면(checkpoint 가 마지막 sequence 를 따라잡으면) 파일을 비운다.
+ * 쓰다 만 마지막 기록은 복구 시 잘라낸다.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${account.balance.engine.enabled:false} " +
+        "and '${account.balance.engine.journal:mapped}' == 'file'")
+public class FileBalanceJournal implements BalanceJournal {
+    private static final String JOURNAL_FILE = "balance.journal";
+
+    private final JournalCheckpoint journalCheckpoint;
+    private final FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long checkpoint;
+    private long lastSequence;
+
+    public FileBalanceJournal(
+            @Value("${account.balance.engine.journal-dir:./data/journal}") String directory)
+            throws IOException {
+        Path journalDirectory = Paths.get(directory);
+        Files.createDirectories(journalDirectory);
+        this.journalCheckpoint = new JournalCheckpoint(journalDirectory);
+        this.checkpoint = journalCheckpoint.read();
+        this.lastSequence = checkpoint;
+        this.channel = FileChannel.open(journalDirectory.resolve(JOURNAL_FILE), CREATE, READ, WRITE);
+        this.channel.position(channel.size());
+    }
+
+    @Override
+    public void append(JournalRecord record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + record.size());
+        buffer.putInt(record.size());
+        record.writeTo(buffer);
+        buffer.flip();
+
+        lock.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            lastSequence = Math.max(lastSequence, record.getSequence());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void checkpoint(long sequence) throws IOException {
+        lock.lock();
+        try {
+            if (sequence <= checkpoint) {
+                return;
+            }
+            journalCheckpoint.write(sequence);
+            checkpoint = sequence;
+            if (checkpoint >= lastSequence) {
+                channel.truncate(0);
+                channel.position(0);
+                channel.force(true);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<JournalRecord> recover() throws IOException {
+        lock.lock();
+        try {
+            List<JournalRecord> records = new ArrayList<>();
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            long position = 0;
+            long size = channel.size();
+
+            while (position + Integer.BYTES <= size) {
+                header.clear();
+                channel.read(header, position);
+                int length = header.flip().getInt();
+                if (length <= 0 || position + Integer.BYTES + length > size) {
+                    break;
+                }
+                ByteBuffer body = ByteBuffer.allocate(length);
+                channel.read(body, position + Integer.BYTES);
+                JournalRecord record = JournalRecord.readFrom(body.flip());
+                if (record.getSequence() > checkpoint) {
+                    records.add(record);
+                }
+                lastSequence = Math.max(lastSequence, record.getSequence());
+                position += Integer.BYTES + length;
+            }
+
+            if (position < size) {
+                log.warn("Truncating torn journal tail at {} (size {})", position, size);
+                channel.truncate(position);
+            }
+            channel.position(position);
+
+            records.sort(Comparator.comparingLong(JournalRecord::getSequence));
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+}
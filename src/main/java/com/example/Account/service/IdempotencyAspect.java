@@ -0,0 +1,125 @@
+package com.example.Account.service;
+
+import com.example.Account.aop.AccountLockIdInterface;
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.IdempotencyStore.StoredResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static com.example.Account.type.ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS;
+import static com.example.Account.type.ErrorCode.IDEMPOTENCY_KEY_REUSED;
+import static com.example.Account.type.ErrorCode.INVALID_REQUEST;
+
+/**
+ * Idempotency-Key 헤더가 붙은 잔액 사용/취소 요청의 응답을 저장해 두고 재요청에 그대로 돌려준다.
+ * 재요청이 락을 잡지 않도록 계좌 락 어드바이스보다 바깥에서 동작한다.
+ * 실패한 요청은 저장하지 않으므로 같은 키로 다시 시도할 수 있다.
+ * 응답은 요청 본문의 SHA-256 지문과 함께 저장하고, 같은 키에 본문이 다른 요청은 재생하지 않고 거절한다.
+ */
+@Aspect
+@Component
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class IdempotencyAspect {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final Counter replayCounter;
+
+    public IdempotencyAspect(IdempotencyStore idempotencyStore, ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.replayCounter = meterRegistry.counter("account.idempotency.replay");
+    }
+
+    @Around("@annotation(com.example.Account.aop.Idempotent) && args(request)")
+    public Object aroundMethod(
+            ProceedingJoinPoint pjp,
+            AccountLockIdInterface request
+    ) throws Throwable {
+        String idempotencyKey = getIdempotencyKey();
+        if (idempotencyKey == null) {
+            return pjp.proceed();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+
+        // 같은 키라도 사용/취소, 계좌가 다르면 다른 요청으로 본다
+        String key = pjp.getSignature().getName() + ":"
+                + request.getAccountNumber() + ":" + idempotencyKey;
+        Class<?> responseType = ((MethodSignature) pjp.getSignature()).getReturnType();
+        String fingerprint = fingerprint(request);
+
+        Optional<? extends StoredResponse<?>> stored = idempotencyStore.get(key, responseType);
+        if (stored.isPresent()) {
+            return replay(key, fingerprint, stored.get());
+        }
+        if (!idempotencyStore.claim(key)) {
+            // 선점에 실패한 사이 앞선 요청이 끝났을 수 있다
+            stored = idempotencyStore.get(key, responseType);
+            if (stored.isPresent()) {
+                return replay(key, fingerprint, stored.get());
+            }
+            throw new AccountException(IDEMPOTENCY_KEY_IN_PROGRESS);
+        }
+
+        Object result;
+        try {
+            result = pjp.proceed();
+        } catch (Throwable e) {
+            idempotencyStore.release(key);
+            throw e;
+        }
+        idempotencyStore.complete(key, fingerprint, result);
+        return result;
+    }
+
+    private Object replay(String key, String fingerprint, StoredResponse<?> stored) {
+        if (!fingerprint.equals(stored.getFingerprint())) {
+            throw new AccountException(IDEMPOTENCY_KEY_REUSED);
+        }
+        log.debug("Replaying response for idempotency key : {}", key);
+        replayCounter.increment();
+        return stored.getResponse();
+    }
+
+    private String fingerprint(AccountLockIdInterface request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to fingerprint idempotent request", e);
+        }
+    }
+
+    private String getIdempotencyKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        return ((ServletRequestAttributes) attributes).getRequest()
+                .getHeader(IDEMPOTENCY_KEY_HEADER);
+    }
+}
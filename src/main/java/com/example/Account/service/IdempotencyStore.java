@@ -0,0 +1,41 @@
+package com.example.Account.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Optional;
+
+/**
+ * Idempotency-Key 별 응답 저장소. account.idempotency.store 설정으로 구현체를 선택한다.
+ * (local: JVM 내부 크기 제한 캐시, redis: 여러 노드가 공유하는 Redis 해시)
+ * 키는 claim 으로 처리 중 상태를 선점한 요청만 complete 또는 release 한다.
+ * 처리 중 상태는 in-progress-lease 동안만 유지되고, complete 한 응답은 ttl 동안 보관한다.
+ */
+public interface IdempotencyStore {
+    /**
+     * 처리가 끝난 키의 요청 지문과 응답. 없거나 처리 중이면 empty
+     */
+    <T> Optional<StoredResponse<T>> get(String key, Class<T> type);
+
+    /**
+     * 키를 처리 중 상태로 선점한다. 이미 처리 중이거나 끝난 키면 false
+     */
+    boolean claim(String key);
+
+    /**
+     * 응답을 처음 요청의 지문(요청 본문 해시)과 함께 저장한다.
+     */
+    void complete(String key, String fingerprint, Object response);
+
+    /**
+     * 처리에 실패한 키의 선점을 풀어 같은 키로 다시 시도할 수 있게 한다.
+     */
+    void release(String key);
+
+    @Getter
+    @AllArgsConstructor
+    class StoredResponse<T> {
+        private final String fingerprint;
+        private final T response;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.Account.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * 저널 checkpoint 파일. 임시 파일에 쓰고 fsync 한 뒤 원자적으로 교체한다.
+ */
+class JournalCheckpoint {
+    private static final String CHECKPOINT_FILE = "balance.checkpoint";
+
+    private final Path path;
+
+    JournalCheckpoint(Path directory) {
+        this.path = directory.resolve(CHECKPOINT_FILE);
+    }
+
+    long read() throws IOException {
+        return Files.exists(path) ? Long.parseLong(Files.readString(path).trim()) : 0L;
+    }
+
+    void write(long sequence) throws IOException {
+        Path temp = path.resolveSibling(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(
+                    Long.toString(sequence).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(temp, path, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+}
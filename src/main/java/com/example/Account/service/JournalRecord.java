@@ -0,0 +1,82 @@
+package com.example.Account.service;
+
+import com.example.Account.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 저널에 기록되는 성공 거래 한 건.
+ * balanceSnapshot 은 거래 후 잔액의 절대값이므로 같은 기록을 여러 번 반영해도 결과가 같다.
+ */
+@Getter
+@AllArgsConstructor
+public class JournalRecord {
+    private final long sequence;
+    private final TransactionType transactionType;
+    private final String transactionId;
+    private final long accountId;
+    private final String accountNumber;
+    private final long amount;
+    private final long balanceSnapshot;
+    private final LocalDateTime transactedAt;
+    // 취소 거래가 되돌린 원 거래 아이디 (사용 거래는 null)
+    private final String cancelledTransactionId;
+
+    public int size() {
+        return Long.BYTES + Byte.BYTES
+                + Short.BYTES + transactionId.length()
+                + Long.BYTES
+                + Short.BYTES + accountNumber.length()
+                + Long.BYTES + Long.BYTES
+                + Long.BYTES + Integer.BYTES
+                + Short.BYTES + (cancelledTransactionId == null ? 0 : cancelledTransactionId.length());
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putLong(sequence);
+        buffer.put((byte) transactionType.ordinal());
+        putString(buffer, transactionId);
+        buffer.putLong(accountId);
+        putString(buffer, accountNumber);
+        buffer.putLong(amount);
+        buffer.putLong(balanceSnapshot);
+        buffer.putLong(transactedAt.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(transactedAt.getNano());
+        putString(buffer, cancelledTransactionId == null ? "" : cancelledTransactionId);
+    }
+
+    public static JournalRecord readFrom(ByteBuffer buffer) {
+        return new JournalRecord(
+                buffer.getLong(),
+                TransactionType.values()[buffer.get()],
+                getString(buffer),
+                buffer.getLong(),
+                getString(buffer),
+                buffer.getLong(),
+                buffer.getLong(),
+                LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC),
+                emptyToNull(getString(buffer)));
+    }
+
+    // 거래 아이디와 계좌번호는 ASCII 이므로 문자 수가 곧 바이트 수다
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
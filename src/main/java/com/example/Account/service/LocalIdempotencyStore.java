@@ -0,0 +1,76 @@
+package com.example.Account.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 단일 노드용 저장소. 응답 객체를 그대로 크기 제한과 TTL 이 있는 캐시에 보관한다.
+ * 처리 중 표시는 in-progress-lease, 응답은 ttl 이 지나면 만료된다.
+ */
+@Service
+@ConditionalOnProperty(name = "account.idempotency.store", havingValue = "local", matchIfMissing = true)
+public class LocalIdempotencyStore implements IdempotencyStore {
+    private static final Object IN_PROGRESS = new Object();
+
+    private final Cache<String, Object> responses;
+
+    public LocalIdempotencyStore(
+            @Value("${account.idempotency.maximum-size:100000}") long maximumSize,
+            @Value("${account.idempotency.ttl:24h}") Duration ttl,
+            @Value("${account.idempotency.in-progress-lease:30s}") Duration inProgressLease) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Object>() {
+                    @Override
+                    public long expireAfterCreate(String key, Object value, long currentTime) {
+                        return (value == IN_PROGRESS ? inProgressLease : ttl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Object value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Object value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Optional<StoredResponse<T>> get(String key, Class<T> type) {
+        Object stored = responses.getIfPresent(key);
+        if (!(stored instanceof StoredResponse)
+                || !type.isInstance(((StoredResponse<?>) stored).getResponse())) {
+            return Optional.empty();
+        }
+        return Optional.of((StoredResponse<T>) stored);
+    }
+
+    @Override
+    public boolean claim(String key) {
+        return responses.asMap().putIfAbsent(key, IN_PROGRESS) == null;
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, Object response) {
+        responses.put(key, new StoredResponse<>(fingerprint, response));
+    }
+
+    @Override
+    public void release(String key) {
+        responses.asMap().remove(key, IN_PROGRESS);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Account.service;
+
+import com.example.Account.exception.AccountException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+/**
+ * 단일 노드 배포용 락. 계좌번호 해시로 고정 개수의 락(stripe) 중 하나를 골라
+ * Redis 왕복 없이 JVM 안에서 잠근다.
+ * 락이 프로세스와 수명을 같이 하므로 lease 시간은 사용하지 않는다.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "account.lock.mode", havingValue = "local")
+public class LocalLockService implements LockService {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public LocalLockService(
+            @Value("${account.lock.local.stripes:1024}") int stripeCount,
+            @Value("${account.lock.fair:false}") boolean fair) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(fair);
+        }
+        this.mask = size - 1;
+    }
+
+    @Override
+    public void lock(String accountNumber, long waitTimeMillis, long leaseTimeMillis) {
+        log.debug("Trying lock for accountNumber : {}", accountNumber);
+
+        try {
+            boolean isLock = getStripe(accountNumber).tryLock(waitTimeMillis, TimeUnit.MILLISECONDS);
+            if (!isLock) {
+                log.error("==========Lock acquisition failed==========");
+                throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+        log.debug("unlock for accountNumber : {}", accountNumber);
+        getStripe(accountNumber).unlock();
+    }
+
+    private ReentrantLock getStripe(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+}
@@ -1,31 +1,71 @@
 package com.example.Account.service;
 
+import com.example.Account.aop.AccountLock;
 import com.example.Account.aop.AccountLockIdInterface;
-import lombok.RequiredArgsConstructor;
+import com.example.Account.exception.AccountException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+
 @Aspect
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class LockAopAspect {
     private final LockService lockService;
+    private final LockLeasePolicy lockLeasePolicy;
+
+    private final Timer lockAcquiredTimer;
+    private final Timer lockFailedTimer;
+    private final Timer lockHoldSuccessTimer;
+    private final Timer lockHoldErrorTimer;
+
+    public LockAopAspect(LockService lockService, LockLeasePolicy lockLeasePolicy,
+                         MeterRegistry meterRegistry) {
+        this.lockService = lockService;
+        this.lockLeasePolicy = lockLeasePolicy;
+        this.lockAcquiredTimer = meterRegistry.timer("account.lock.wait", "outcome", "acquired");
+        this.lockFailedTimer = meterRegistry.timer("account.lock.wait", "outcome", "failed");
+        this.lockHoldSuccessTimer = meterRegistry.timer("account.lock.hold", "outcome", "success");
+        this.lockHoldErrorTimer = meterRegistry.timer("account.lock.hold", "outcome", "error");
+    }
 
-    @Around("@annotation(com.example.Account.aop.AccountLock) && args(request)")
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
+            AccountLock accountLock,
             AccountLockIdInterface request
     ) throws Throwable {
-        lockService.lock(request.getAccountNumber());
+        String methodKey = String.valueOf(pjp.getSignature());
 
+        long waitStart = System.nanoTime();
         try {
-            return pjp.proceed();
+            lockService.lock(request.getAccountNumber(), accountLock.tryLockTime(),
+                    lockLeasePolicy.getLeaseTime(methodKey));
+        } catch (AccountException e) {
+            lockFailedTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        lockAcquiredTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = pjp.proceed();
+            success = true;
+            return result;
         } finally {
             lockService.unlock(request.getAccountNumber());
+
+            long elapsed = System.nanoTime() - start;
+            (success ? lockHoldSuccessTimer : lockHoldErrorTimer)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            lockLeasePolicy.record(methodKey, TimeUnit.NANOSECONDS.toMillis(elapsed));
         }
     }
 
@@ -0,0 +1,80 @@
+package com.example.Account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 락 lease 시간 정책.
+ * fixed: 설정된 lease 시간을 그대로 사용한다.
+ * adaptive: 락으로 보호되는 메서드의 최근 수행 시간 p99 에 배수를 곱해 lease 를 정한다.
+ */
+@Component
+public class LockLeasePolicy {
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int RECALCULATE_INTERVAL = 64;
+
+    private final boolean adaptive;
+    private final long leaseTime;
+    private final long minLeaseTime;
+    private final long maxLeaseTime;
+    private final double multiplier;
+
+    private final ConcurrentMap<String, DurationWindow> windows = new ConcurrentHashMap<>();
+
+    public LockLeasePolicy(
+            @Value("${account.lock.lease-policy:fixed}") String leasePolicy,
+            @Value("${account.lock.lease-time:15000}") long leaseTime,
+            @Value("${account.lock.adaptive.min-lease-time:1000}") long minLeaseTime,
+            @Value("${account.lock.adaptive.max-lease-time:30000}") long maxLeaseTime,
+            @Value("${account.lock.adaptive.multiplier:3.0}") double multiplier) {
+        this.adaptive = "adaptive".equalsIgnoreCase(leasePolicy);
+        this.leaseTime = leaseTime;
+        this.minLeaseTime = minLeaseTime;
+        this.maxLeaseTime = maxLeaseTime;
+        this.multiplier = multiplier;
+    }
+
+    public long getLeaseTime(String methodKey) {
+        if (!adaptive) {
+            return leaseTime;
+        }
+        DurationWindow window = windows.get(methodKey);
+        return window == null ? leaseTime : window.leaseTime;
+    }
+
+    public void record(String methodKey, long elapsedMillis) {
+        if (!adaptive) {
+            return;
+        }
+        windows.computeIfAbsent(methodKey, key -> new DurationWindow(leaseTime))
+                .record(elapsedMillis);
+    }
+
+    private class DurationWindow {
+        private final long[] samples = new long[SAMPLE_SIZE];
+        private int count;
+        private volatile long leaseTime;
+
+        private DurationWindow(long initialLeaseTime) {
+            this.leaseTime = initialLeaseTime;
+        }
+
+        private synchronized void record(long elapsedMillis) {
+            samples[count++ % SAMPLE_SIZE] = elapsedMillis;
+            if (count % RECALCULATE_INTERVAL == 0) {
+                long[] sorted = Arrays.copyOf(samples, Math.min(count, SAMPLE_SIZE));
+                Arrays.sort(sorted);
+                long p99 = sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+                leaseTime = Math.max(minLeaseTime,
+                        Math.min(maxLeaseTime, (long) (p99 * multiplier)));
+            }
+            if (count == SAMPLE_SIZE * RECALCULATE_INTERVAL) {
+                count = SAMPLE_SIZE;
+            }
+        }
+    }
+}
@@ -1,46 +1,16 @@
 package com.example.Account.service;
 
-import com.example.Account.exception.AccountException;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
-import org.springframework.stereotype.Service;
-
-import java.util.concurrent.TimeUnit;
-
-import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
-
-@Slf4j
-@Service
-@RequiredArgsConstructor
-public class LockService {
-    private final RedissonClient redissonClient;
-
-    public void lock(String accountNumber) {
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
-        log.debug("Trying lock for accountNumber : {}", accountNumber);
-
-        try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
-            if (!isLock) {
-                log.error("==========Lock acquisition failed==========");
-                throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
-            }
-        } catch (AccountException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Redis lock failed", e);
-        }
-
-    }
-
-    public void unlock(String accountNumber) {
-        log.debug("unlock for accountNumber : {}", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
-    }
-
-    private String getLockKey(String accountNumber) {
-        return "ACLK" + accountNumber;
-    }
+/**
+ * 계좌 단위 락. account.lock.mode 설정으로 구현체를 선택한다.
+ * (redis: 여러 노드 간 분산 락, local: 단일 노드용 JVM 내부 락)
+ * 락 획득에 실패하면 ACCOUNT_TRANSACTION_LOCK 예외를 던진다.
+ */
+public interface LockService {
+    /**
+     * @param waitTimeMillis  락 획득을 기다리는 최대 시간
+     * @param leaseTimeMillis 락을 자동 해제하기까지의 시간 (local 구현은 무시)
+     */
+    void lock(String accountNumber, long waitTimeMillis, long leaseTimeMillis);
+
+    void unlock(String accountNumber);
 }
@@ -0,0 +1,389 @@
+package com.example.Account.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * 메모리 매핑 세그먼트 저널.
+ * 기록은 [길이][CRC32C][내용] 으로 미리 할당한 세그먼트 파일에 이어 쓰고, 세그먼트가 차면 새 파일로 넘어간다.
+ * fsync 는 sync 스레드가 group-commit.records 건이 모이거나 group-commit.interval-micros 가 지나면
+ * 한 번에 한다 (group commit). appendAsync 는 기록을 쓰고 바로 반환하고 fsync 가 끝나면 future 를 완료하므로,
+ * 한 스레드가 fsync 를 기다리지 않고 계속 기록할 수 있어 한 번의 fsync 에 여러 기록이 묶인다.
+ * 복구 시 길이가 0 이거나 CRC 가 맞지 않는 기록에서 읽기를 멈추고, 그 뒤는 0 으로 지운다.
+ * checkpoint 이하의 기록만 담은 세그먼트는 삭제한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${account.balance.engine.enabled:false} " +
+        "and '${account.balance.engine.journal:mapped}' == 'mapped'")
+public class MappedSegmentJournal implements BalanceJournal {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int FRAME_HEADER_SIZE = Integer.BYTES * 2;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int groupCommitRecords;
+    private final long groupCommitIntervalNanos;
+    private final JournalCheckpoint journalCheckpoint;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition syncRequested = lock.newCondition();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    // 디스크에 내려가기를 기다리는 기록 (쓰기 순번 순)
+    private final Deque<SyncWaiter> waiters = new ArrayDeque<>();
+
+    private long checkpoint;
+    private long lastSequence;
+    // 쓰기 순번과 디스크에 내려간 쓰기 순번
+    private long written;
+    private long flushed;
+    private IOException syncFailure;
+    // fsync 횟수와 fsync 로 내린 기록 수 (group commit 크기 확인용)
+    private long syncCount;
+    private long syncedRecords;
+
+    private volatile boolean running;
+    private final Thread syncThread;
+
+    public MappedSegmentJournal(
+            @Value("${account.balance.engine.journal-dir:./data/journal}") String directory,
+            @Value("${account.balance.engine.segment-size:67108864}") int segmentSize,
+            @Value("${account.balance.engine.group-commit.records:64}") int groupCommitRecords,
+            @Value("${account.balance.engine.group-commit.interval-micros:200}") long groupCommitIntervalMicros)
+            throws IOException {
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.groupCommitRecords = groupCommitRecords;
+        this.groupCommitIntervalNanos = TimeUnit.MICROSECONDS.toNanos(groupCommitIntervalMicros);
+        Files.createDirectories(this.directory);
+        this.journalCheckpoint = new JournalCheckpoint(this.directory);
+        this.checkpoint = journalCheckpoint.read();
+        this.lastSequence = checkpoint;
+
+        this.running = true;
+        this.syncThread = new Thread(this::syncLoop, "balance-journal-sync");
+        this.syncThread.setDaemon(true);
+        this.syncThread.start();
+    }
+
+    @Override
+    public void append(JournalRecord record) throws IOException {
+        try {
+            appendAsync(record).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> appendAsync(JournalRecord record) {
+        int size = record.size();
+        ByteBuffer body = ByteBuffer.allocate(size);
+        record.writeTo(body);
+        CRC32C crc = new CRC32C();
+        crc.update(body.array(), 0, size);
+
+        lock.lock();
+        try {
+            if (syncFailure != null) {
+                return CompletableFuture.failedFuture(syncFailure);
+            }
+            if (!running) {
+                return CompletableFuture.failedFuture(new IOException("Journal is closed"));
+            }
+
+            Segment segment = writableSegment(record.getSequence(), FRAME_HEADER_SIZE + size);
+            MappedByteBuffer buffer = segment.buffer;
+            buffer.putInt(size);
+            buffer.putInt((int) crc.getValue());
+            buffer.put(body.array(), 0, size);
+            segment.maxSequence = Math.max(segment.maxSequence, record.getSequence());
+            lastSequence = Math.max(lastSequence, record.getSequence());
+
+            SyncWaiter waiter = new SyncWaiter(++written);
+            waiters.addLast(waiter);
+            long unsynced = written - flushed;
+            if (unsynced == 1 || unsynced >= groupCommitRecords) {
+                syncRequested.signal();
+            }
+            return waiter.future;
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void checkpoint(long sequence) throws IOException {
+        List<Segment> removed = new ArrayList<>();
+        lock.lock();
+        try {
+            if (sequence <= checkpoint) {
+                return;
+            }
+            journalCheckpoint.write(sequence);
+            checkpoint = sequence;
+
+            // 쓰는 중인 마지막 세그먼트는 남긴다
+            Iterator<Segment> iterator = segments.iterator();
+            while (iterator.hasNext()) {
+                Segment segment = iterator.next();
+                if (segment == segments.peekLast() || segment.maxSequence > checkpoint) {
+                    break;
+                }
+                iterator.remove();
+                removed.add(segment);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (Segment segment : removed) {
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    @Override
+    public List<JournalRecord> recover() throws IOException {
+        lock.lock();
+        try {
+            segments.clear();
+            List<JournalRecord> records = new ArrayList<>();
+            for (Path path : listSegments()) {
+                Segment segment = openSegment(path);
+                segments.addLast(segment);
+                readSegment(segment, records);
+            }
+
+            records.sort(Comparator.comparingLong(JournalRecord::getSequence));
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // fsync 한 번에 내린 평균 기록 수
+    double averageGroupSize() {
+        lock.lock();
+        try {
+            return syncCount == 0 ? 0 : (double) syncedRecords / syncCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            syncRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+        syncThread.join();
+    }
+
+    private void syncLoop() {
+        while (true) {
+            List<MappedByteBuffer> buffers;
+            long target;
+            lock.lock();
+            try {
+                while (running && written == flushed) {
+                    syncRequested.await();
+                }
+                // 첫 기록이 들어온 뒤 interval 동안 또는 records 건이 모일 때까지 더 모은다
+                long remaining = groupCommitIntervalNanos;
+                while (running && written - flushed < groupCommitRecords && remaining > 0) {
+                    remaining = syncRequested.awaitNanos(remaining);
+                }
+                if (written == flushed) {
+                    return;
+                }
+                target = written;
+                buffers = segments.stream()
+                        .filter(segment -> segment.dirty)
+                        .map(segment -> segment.buffer)
+                        .collect(Collectors.toList());
+                segments.forEach(segment -> segment.dirty = false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException failure = null;
+            try {
+                buffers.forEach(MappedByteBuffer::force);
+            } catch (UncheckedIOException e) {
+                failure = e.getCause();
+            }
+
+            // 완료 콜백은 lock 밖에서 실행한다
+            List<SyncWaiter> done = new ArrayList<>();
+            lock.lock();
+            try {
+                if (failure != null) {
+                    log.error("Journal sync failed", failure);
+                    syncFailure = failure;
+                    // 실패 이후의 기록도 디스크에 내려갔다고 볼 수 없다
+                    done.addAll(waiters);
+                    waiters.clear();
+                } else {
+                    syncCount++;
+                    syncedRecords += target - flushed;
+                    flushed = Math.max(flushed, target);
+                    while (!waiters.isEmpty() && waiters.peekFirst().ticket <= target) {
+                        done.add(waiters.pollFirst());
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            for (SyncWaiter waiter : done) {
+                if (failure != null) {
+                    waiter.future.completeExceptionally(failure);
+                } else {
+                    waiter.future.complete(null);
+                }
+            }
+        }
+    }
+
+    // lock 을 잡은 상태에서 호출
+    private Segment writableSegment(long sequence, int frameSize) throws IOException {
+        if (frameSize + Integer.BYTES > segmentSize) {
+            throw new IOException("Journal record is larger than a segment: " + frameSize);
+        }
+        Segment current = segments.peekLast();
+        if (current != null && current.buffer.remaining() >= frameSize + Integer.BYTES) {
+            current.dirty = true;
+            return current;
+        }
+
+        // 다 쓴 세그먼트는 아직 sync 되지 않은 기록이 있을 수 있으므로 dirty 로 남겨 sync 스레드가 내린다
+        Segment segment = openSegment(directory.resolve(
+                String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX)));
+        segment.dirty = true;
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private Segment openSegment(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE)) {
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+    }
+
+    private void readSegment(Segment segment, List<JournalRecord> records) {
+        MappedByteBuffer buffer = segment.buffer;
+        CRC32C crc = new CRC32C();
+        while (buffer.remaining() >= FRAME_HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+
+            ByteBuffer body = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Journal CRC mismatch in {} at {}", segment.path.getFileName(), start);
+                buffer.position(start);
+                break;
+            }
+
+            JournalRecord record = JournalRecord.readFrom(body);
+            buffer.position(start + FRAME_HEADER_SIZE + length);
+            segment.maxSequence = Math.max(segment.maxSequence, record.getSequence());
+            lastSequence = Math.max(lastSequence, record.getSequence());
+            if (record.getSequence() > checkpoint) {
+                records.add(record);
+            }
+        }
+
+        // 마지막으로 읽은 기록 뒤에 남은 쓰다 만 기록이 나중에 되살아나지 않도록 지운다
+        int position = buffer.position();
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.force();
+        buffer.position(position);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static class SyncWaiter {
+        private final long ticket;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private SyncWaiter(long ticket) {
+            this.ticket = ticket;
+        }
+    }
+
+    private static class Segment {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private long maxSequence;
+        private boolean dirty;
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.Account.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * 계좌 락을 잡지 않는다. account.balance.atomic-update 로 잔액을
+ * 조건부 UPDATE 로만 변경할 때 사용한다.
+ */
+@Service
+@ConditionalOnProperty(name = "account.lock.mode", havingValue = "none")
+public class NoOpLockService implements LockService {
+    @Override
+    public void lock(String accountNumber, long waitTimeMillis, long leaseTimeMillis) {
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+    }
+}
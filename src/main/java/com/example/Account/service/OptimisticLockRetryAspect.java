@@ -0,0 +1,73 @@
+package com.example.Account.service;
+
+import com.example.Account.exception.AccountException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+/**
+ * 낙관적 락 충돌 시 지수 백오프 후 재시도한다.
+ * 트랜잭션 어드바이스보다 바깥에서 동작해야 재시도마다 새 트랜잭션에서 계좌를 다시 읽는다.
+ */
+@Aspect
+@Component
+@Slf4j
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticLockRetryAspect {
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticLockRetryAspect(
+            MeterRegistry meterRegistry,
+            @Value("${account.optimistic-lock.max-attempts:3}") int maxAttempts,
+            @Value("${account.optimistic-lock.backoff:10}") long backoffMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    @Around("@annotation(com.example.Account.aop.OptimisticLockRetry) && args(*, accountNumber, ..)")
+    public Object aroundMethod(
+            ProceedingJoinPoint pjp,
+            String accountNumber
+    ) throws Throwable {
+        String method = pjp.getSignature().getName();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return pjp.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Optimistic lock retry exhausted for accountNumber : {}", accountNumber);
+                    retryCounter(method, "exhausted").increment();
+                    throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+                }
+
+                retryCounter(method, "retry").increment();
+                log.debug("Optimistic lock conflict for accountNumber : {}, attempt : {}",
+                        accountNumber, attempt);
+
+                Thread.sleep(backoffMillis * (1L << (attempt - 1))
+                        + ThreadLocalRandom.current().nextLong(backoffMillis + 1));
+            }
+        }
+    }
+
+    // 계좌번호는 태그 값이 끝없이 늘어나므로 메서드와 결과로만 나눈다
+    private Counter retryCounter(String method, String outcome) {
+        return meterRegistry.counter("account.optimistic.lock.retry",
+                "method", method, "outcome", outcome);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.Account.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 다중 노드용 저장소. 하나의 Redis 해시(RMapCache)에 키별 응답 JSON 을 항목 단위 TTL 로 보관한다.
+ * 응답은 {"fingerprint": 요청 지문, "response": 응답} 형태로 저장한다.
+ * 처리 중인 키는 빈 문자열로 표시하고, 노드가 처리 도중 죽어도 키가 ttl 동안 막히지 않도록
+ * in-progress-lease 동안만 유지한다. ttl 은 complete 에서 응답을 저장할 때 건다.
+ * (account.lock.mode: redis 의 RedissonClient 를 사용)
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "account.idempotency.store", havingValue = "redis")
+public class RedisIdempotencyStore implements IdempotencyStore {
+    private static final String IN_PROGRESS = "";
+
+    private final RMapCache<String, String> responses;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final long inProgressLeaseMillis;
+
+    public RedisIdempotencyStore(
+            RedissonClient redissonClient,
+            ObjectMapper objectMapper,
+            @Value("${account.idempotency.ttl:24h}") Duration ttl,
+            @Value("${account.idempotency.in-progress-lease:30s}") Duration inProgressLease) {
+        this.responses = redissonClient.getMapCache("ACIDEM", StringCodec.INSTANCE);
+        this.objectMapper = objectMapper;
+        this.ttlMillis = ttl.toMillis();
+        this.inProgressLeaseMillis = inProgressLease.toMillis();
+    }
+
+    @Override
+    public <T> Optional<StoredResponse<T>> get(String key, Class<T> type) {
+        String stored = responses.get(key);
+        if (stored == null || stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            JsonNode node = objectMapper.readTree(stored);
+            return Optional.of(new StoredResponse<>(node.path("fingerprint").asText(),
+                    objectMapper.treeToValue(node.get("response"), type)));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to read idempotent response for key : {}", key, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean claim(String key) {
+        return responses.fastPutIfAbsent(key, IN_PROGRESS, inProgressLeaseMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, Object response) {
+        try {
+            ObjectNode stored = objectMapper.createObjectNode()
+                    .put("fingerprint", fingerprint)
+                    .set("response", objectMapper.valueToTree(response));
+            responses.fastPut(key, objectMapper.writeValueAsString(stored),
+                    ttlMillis, TimeUnit.MILLISECONDS);
+        } catch (JsonProcessingException e) {
+            // 거래는 이미 반영되었으므로 선점을 풀지 않는다 (재요청은 lease 동안 처리 중으로 거절)
+            log.error("Failed to write idempotent response for key : {}", key, e);
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        responses.remove(key, IN_PROGRESS);
+    }
+}
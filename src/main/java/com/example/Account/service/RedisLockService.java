@@ -0,0 +1,87 @@
+package com.example.Account.service;
+
+import com.example.Account.exception.AccountException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "account.lock.mode", havingValue = "redis", matchIfMissing = true)
+public class RedisLockService implements LockService {
+    private final RedissonClient redissonClient;
+    // RLock 은 이름만 가진 상태 없는 핸들이므로 계좌별로 재사용한다
+    private final Cache<String, RLock> locks;
+    // 공정 락: 대기 순서대로 락을 넘겨 주어 요청이 몰리는 계좌에서 기아 상태를 막는다
+    private final boolean fair;
+    // 비동기 해제: 해제 응답을 기다리지 않고 요청 스레드를 돌려준다
+    private final boolean asyncUnlock;
+
+    public RedisLockService(
+            RedissonClient redissonClient,
+            @Value("${account.lock.redis.cache-size:10000}") long cacheSize,
+            @Value("${account.lock.fair:false}") boolean fair,
+            @Value("${account.lock.redis.async-unlock:false}") boolean asyncUnlock) {
+        this.redissonClient = redissonClient;
+        this.locks = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        this.fair = fair;
+        this.asyncUnlock = asyncUnlock;
+    }
+
+    @Override
+    public void lock(String accountNumber, long waitTimeMillis, long leaseTimeMillis) {
+        RLock lock = getLock(accountNumber);
+        log.debug("Trying lock for accountNumber : {}", accountNumber);
+
+        try {
+            boolean isLock = lock.tryLock(waitTimeMillis, leaseTimeMillis, TimeUnit.MILLISECONDS);
+            if (!isLock) {
+                log.error("==========Lock acquisition failed==========");
+                throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (AccountException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Redis lock failed", e);
+        }
+
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+        log.debug("unlock for accountNumber : {}", accountNumber);
+        RLock lock = getLock(accountNumber);
+
+        if (!asyncUnlock) {
+            lock.unlock();
+            return;
+        }
+
+        // Redisson 락은 획득한 스레드 id 로 해제해야 하므로 현재 스레드 id 를 넘긴다
+        lock.unlockAsync(Thread.currentThread().getId())
+                .onComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Redis unlock failed for accountNumber : {}", accountNumber, e);
+                    }
+                });
+    }
+
+    private RLock getLock(String accountNumber) {
+        return locks.get(accountNumber, key -> fair
+                ? redissonClient.getFairLock(getLockKey(key))
+                : redissonClient.getLock(getLockKey(key)));
+    }
+
+    private String getLockKey(String accountNumber) {
+        return "ACLK" + accountNumber;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.Account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간순 거래 아이디 (32자 16진수).
+ * [밀리초 타임스탬프 48bit][노드 id 16bit][순번 24bit][난수 40bit] 순서로 배치해 새 아이디가 인덱스 끝에 붙는다.
+ * 순번은 노드 안에서 원자적으로 증가하므로 락 없이 중복되지 않고,
+ * 노드 간에는 노드 id 로 구분한다. 노드 id 를 지정하지 않으면 시작 시 임의로 고른다.
+ * 거래 확인 API 는 아이디만으로 조회하므로, 앞의 값을 알아도 다른 거래 아이디를 짐작할 수 없도록 난수를 붙인다.
+ * 난수는 스레드마다 SecureRandom 으로 시드한 SplittableRandom 에서 뽑아 호출 간 락 경합이 없다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.transaction-id.generator", havingValue = "time-ordered",
+        matchIfMissing = true)
+public class TimeOrderedTransactionIdGenerator implements TransactionIdGenerator {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int MAX_NODE_ID = 0xFFFF;
+    private static final long SEQUENCE_MASK = (1L << 24) - 1;
+    private static final long RANDOM_MASK = (1L << 40) - 1;
+
+    private final long nodeId;
+    // 재시작 후 같은 밀리초에 겹치지 않도록 임의의 값에서 시작한다
+    private final AtomicLong sequence;
+    // SecureRandom 은 시드에만 쓰고, 아이디마다 뽑는 난수는 스레드별 생성기에서 얻는다
+    private final SecureRandom seeds = new SecureRandom();
+    private final ThreadLocal<SplittableRandom> random =
+            ThreadLocal.withInitial(() -> new SplittableRandom(seeds.nextLong()));
+
+    public TimeOrderedTransactionIdGenerator(
+            @Value("${account.transaction-id.node-id:-1}") int nodeId) {
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("node-id must be at most " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId < 0 ? seeds.nextInt(MAX_NODE_ID + 1) : nodeId;
+        this.sequence = new AtomicLong(seeds.nextLong());
+    }
+
+    @Override
+    public String generate() {
+        long timestamp = System.currentTimeMillis();
+        long next = sequence.getAndIncrement() & SEQUENCE_MASK;
+
+        char[] chars = new char[32];
+        writeHex(chars, 0, timestamp, 12);
+        writeHex(chars, 12, nodeId, 4);
+        writeHex(chars, 16, next, 6);
+        writeHex(chars, 22, random.get().nextLong() & RANDOM_MASK, 10);
+        return new String(chars);
+    }
+
+    SplittableRandom threadRandom() {
+        return random.get();
+    }
+
+    private static void writeHex(char[] chars, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            chars[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
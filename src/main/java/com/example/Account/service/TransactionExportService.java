@@ -0,0 +1,166 @@
+package com.example.Account.service;
+
+import com.example.Account.type.ExportFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * 하루치 거래 내보내기.
+ * 엔티티나 목록으로 모으지 않고 forward-only 커서에서 읽은 행을 바로 응답 스트림에 쓰므로
+ * 행 수와 관계없이 메모리 사용량이 일정하다.
+ */
+@Slf4j
+@Service
+public class TransactionExportService {
+    private static final String SELECT_TRANSACTIONS_OF_DAY =
+            "SELECT account_number, transaction_id, transaction_type, transaction_result, " +
+                    "amount, balance_snapshot, transacted_at FROM transaction " +
+                    "WHERE transacted_at >= ? AND transacted_at < ? " +
+                    "ORDER BY transacted_at, id";
+    private static final String CSV_HEADER =
+            "accountNumber,transactionId,transactionType,transactionResult," +
+                    "amount,balanceSnapshot,transactedAt";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int fetchSize;
+
+    public TransactionExportService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${account.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    // 일부 드라이버(PostgreSQL 등)는 auto-commit 이 꺼져 있어야 fetch size 단위로 커서를 읽는다
+    @Transactional(readOnly = true)
+    public long export(LocalDate date, ExportFormat format, OutputStream outputStream)
+            throws IOException {
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        RowWriter rowWriter = format == ExportFormat.CSV
+                ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        long[] count = {0};
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        SELECT_TRANSACTIONS_OF_DAY,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                ps.setTimestamp(1, Timestamp.valueOf(date.atStartOfDay()));
+                ps.setTimestamp(2, Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    rowWriter.write(rs);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // 클라이언트가 연결을 끊은 경우 등
+            log.warn("Transaction export aborted after {} rows", count[0]);
+            throw e.getCause();
+        }
+
+        rowWriter.finish();
+        return count[0];
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        // 모든 컬럼이 숫자, enum, 16진수 id, 시각이라 따옴표 처리가 필요 없다
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            writer.write(nullToEmpty(rs.getString(1)));
+            writer.write(',');
+            writer.write(nullToEmpty(rs.getString(2)));
+            writer.write(',');
+            writer.write(nullToEmpty(rs.getString(3)));
+            writer.write(',');
+            writer.write(nullToEmpty(rs.getString(4)));
+            writer.write(',');
+            writer.write(Long.toString(rs.getLong(5)));
+            writer.write(',');
+            writer.write(Long.toString(rs.getLong(6)));
+            writer.write(',');
+            Timestamp transactedAt = rs.getTimestamp(7);
+            writer.write(transactedAt == null ? "" : transactedAt.toLocalDateTime().toString());
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private static String nullToEmpty(String value) {
+            return value == null ? "" : value;
+        }
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private boolean empty = true;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = jsonFactory.createGenerator(writer);
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeStringField("accountNumber", rs.getString(1));
+            generator.writeStringField("transactionId", rs.getString(2));
+            generator.writeStringField("transactionType", rs.getString(3));
+            generator.writeStringField("transactionResult", rs.getString(4));
+            generator.writeNumberField("amount", rs.getLong(5));
+            generator.writeNumberField("balanceSnapshot", rs.getLong(6));
+            Timestamp transactedAt = rs.getTimestamp(7);
+            generator.writeStringField("transactedAt",
+                    transactedAt == null ? null : transactedAt.toLocalDateTime().toString());
+            generator.writeEndObject();
+            empty = false;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+}
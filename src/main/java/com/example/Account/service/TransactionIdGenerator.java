@@ -0,0 +1,8 @@
+package com.example.Account.service;
+
+/**
+ * 거래 아이디(transactionId) 생성기. 32자 16진수 문자열을 만든다.
+ */
+public interface TransactionIdGenerator {
+    String generate();
+}
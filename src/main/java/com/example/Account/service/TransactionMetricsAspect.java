@@ -0,0 +1,63 @@
+package com.example.Account.service;
+
+import com.example.Account.exception.AccountException;
+import com.example.Account.type.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static com.example.Account.type.ErrorCode.INTERNAL_SERVER_ERROR;
+import static com.example.Account.type.TransactionResult.F;
+import static com.example.Account.type.TransactionResult.S;
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
+
+/**
+ * 잔액 사용/취소 수행 시간을 거래 종류, 결과, 에러 코드별로 기록한다.
+ * 낙관적 락 재시도까지 포함한 시간을 재도록 재시도 어드바이스보다 바깥에서 동작한다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+public class TransactionMetricsAspect {
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* com.example.Account.service.TransactionService.useBalance(..))")
+    public Object aroundUseBalance(ProceedingJoinPoint pjp) throws Throwable {
+        return record(pjp, USE);
+    }
+
+    @Around("execution(* com.example.Account.service.TransactionService.cancelBalance(..))")
+    public Object aroundCancelBalance(ProceedingJoinPoint pjp) throws Throwable {
+        return record(pjp, CANCEL);
+    }
+
+    private Object record(ProceedingJoinPoint pjp, TransactionType transactionType) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = pjp.proceed();
+            sample.stop(timer(transactionType, S.name(), "NONE"));
+            return result;
+        } catch (AccountException e) {
+            sample.stop(timer(transactionType, F.name(), e.getErrorCode().name()));
+            throw e;
+        } catch (Throwable e) {
+            sample.stop(timer(transactionType, F.name(), INTERNAL_SERVER_ERROR.name()));
+            throw e;
+        }
+    }
+
+    private Timer timer(TransactionType transactionType, String transactionResult, String errorCode) {
+        return meterRegistry.timer("account.transaction",
+                "type", transactionType.name(),
+                "result", transactionResult,
+                "errorCode", errorCode);
+    }
+}
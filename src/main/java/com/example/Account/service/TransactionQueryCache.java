@@ -0,0 +1,67 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.QueryTransactionResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+
+/**
+ * 거래 확인 응답 캐시. 거래 행은 저장된 뒤 바뀌지 않으므로 만료 없이 개수로만 제한한다.
+ * 거래 저장 시에는 커밋된 뒤에 넣어 롤백된 거래가 조회되지 않게 한다.
+ * 응답의 취소 여부는 취소 거래가 커밋된 뒤 원 거래 항목을 지워 다시 읽게 한다.
+ */
+@Component
+public class TransactionQueryCache {
+    private final Cache<String, QueryTransactionResponse> responses;
+
+    public TransactionQueryCache(
+            @Value("${account.cache.transaction.maximum-size:100000}") long maximumSize) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * 캐시에 없으면 loader 로 읽어 넣는다. loader 가 던진 예외는 그대로 전달되고 캐시에 남지 않는다.
+     */
+    public QueryTransactionResponse get(String transactionId,
+                                        Function<String, QueryTransactionResponse> loader) {
+        return responses.get(transactionId, loader);
+    }
+
+    /**
+     * 원 거래가 취소되면 호출한다. 읽는 중인 항목은 읽기가 끝난 뒤에 지워진다.
+     */
+    public void evictAfterCommit(String transactionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            responses.invalidate(transactionId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                responses.invalidate(transactionId);
+            }
+        });
+    }
+
+    public void putAfterCommit(QueryTransactionResponse response) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            responses.put(response.getTransactionId(), response);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                responses.put(response.getTransactionId(), response);
+            }
+        });
+    }
+}
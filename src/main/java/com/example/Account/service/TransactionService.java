@@ -1,9 +1,14 @@
 package com.example.Account.service;
 
+import com.example.Account.aop.OptimisticLockRetry;
 import com.example.Account.domain.Account;
 import com.example.Account.domain.AccountUser;
 import com.example.Account.domain.Transaction;
+import com.example.Account.dto.AccountOwner;
+import com.example.Account.dto.BatchTransaction;
+import com.example.Account.dto.QueryTransactionResponse;
 import com.example.Account.dto.TransactionDto;
+import com.example.Account.dto.TransactionHistory;
 import com.example.Account.exception.AccountException;
 import com.example.Account.repository.AccountRepository;
 import com.example.Account.repository.AccountUserRepository;
@@ -13,12 +18,17 @@ import com.example.Account.type.ErrorCode;
 import com.example.Account.type.TransactionResult;
 import com.example.Account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Optional;
 
 import static com.example.Account.type.AccountStatus.*;
 import static com.example.Account.type.ErrorCode.*;
@@ -29,14 +39,31 @@ import static com.example.Account.type.TransactionType.USE;
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionQueryCache transactionQueryCache;
+    private final AccountPortfolioCache accountPortfolioCache;
+    // account.balance.engine.enabled=true 일 때만 존재
+    private final ObjectProvider<BalanceEngine> balanceEngine;
+
+    // 잔액을 조건부 UPDATE 한 문장으로 변경한다 (계좌 락 없이도 잔액이 음수가 되지 않음)
+    @Value("${account.balance.atomic-update:false}")
+    private boolean atomicUpdate;
 
     @Transactional
+    @OptimisticLockRetry
     public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
         AccountUser accountUser = accountUserRepository.findById(userId)
                 .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+
+        if (atomicUpdate) {
+            return useBalanceAtomically(accountUser, accountNumber, amount);
+        }
+
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
 
@@ -45,12 +72,48 @@ public class TransactionService {
         account.useBalance(amount);
 
         Transaction transaction = saveAndGetTransaction(USE, S, account, amount);
+        accountPortfolioCache.evictAfterCommit(accountUser.getId());
 
         return TransactionDto.fromEntity(transaction);
     }
 
+    private TransactionDto useBalanceAtomically(AccountUser accountUser, String accountNumber,
+                                                Long amount) {
+        // 소유주 검증은 캐시된 계좌번호-소유주 매핑으로 처리하고, 사용 중 여부와 잔액은 UPDATE 조건으로 확인한다
+        AccountOwner accountOwner = accountRepository.findOwnerByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+        if (!Objects.equals(accountUser.getId(), accountOwner.getUserId())) {
+            throw new AccountException(USER_ACCOUNT_UNMATCH);
+        }
+
+        if (accountRepository.decreaseBalance(
+                accountNumber, amount, LocalDateTime.now()) == 0) {
+            Account account = accountRepository.findById(accountOwner.getAccountId())
+                    .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+            validateUseAccount(accountUser, account);
+            throw new AccountException(AMOUNT_EXCEED_BALANCE);
+        }
+
+        // 차감한 행은 커밋 전까지 잠겨 있으므로 다시 읽은 잔액이 이 거래의 스냅샷이다
+        Account account = accountRepository.findById(accountOwner.getAccountId())
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+        accountPortfolioCache.evictAfterCommit(accountUser.getId());
+
+        return TransactionDto.fromEntity(
+                saveAndGetTransaction(USE, S, account, amount));
+    }
+
     private void validateUseBalance(AccountUser accountUser, Account account,
                                     Long amount) {
+        validateUseAccount(accountUser, account);
+
+        if (account.getBalance() < amount) {
+            throw new AccountException(AMOUNT_EXCEED_BALANCE);
+        }
+
+    }
+
+    private static void validateUseAccount(AccountUser accountUser, Account account) {
         if (!Objects.equals(accountUser.getId(), account.getAccountUser().getId())) {
             throw new AccountException(ErrorCode.USER_ACCOUNT_UNMATCH);
         }
@@ -58,11 +121,6 @@ public class TransactionService {
         if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
             throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
-
-        if (account.getBalance() < amount) {
-            throw new AccountException(AMOUNT_EXCEED_BALANCE);
-        }
-
     }
 
     @Transactional
@@ -73,6 +131,7 @@ public class TransactionService {
         saveAndGetTransaction(USE, F, account, amount);
     }
     @Transactional
+    @OptimisticLockRetry
     public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
         Transaction transaction = transactionRepository.findByTransactionId(transactionId)
                 .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
@@ -82,10 +141,32 @@ public class TransactionService {
 
         validateCancelBalance(transaction, account, amount);
 
-        account.cancelBalance(amount);
+        if (transactionRepository.existsByCancelledTransactionId(transactionId)) {
+            throw new AccountException(TRANSACTION_ALREADY_CANCELLED);
+        }
 
-        return TransactionDto.fromEntity(
-                saveAndGetTransaction(CANCEL, S, account, amount));
+        if (atomicUpdate) {
+            accountRepository.increaseBalance(
+                    account.getAccountNumber(), amount, LocalDateTime.now());
+            account.setBalance(accountRepository.findBalanceByAccountNumber(
+                    account.getAccountNumber()));
+        } else {
+            account.cancelBalance(amount);
+        }
+
+        // 취소 거래를 바로 INSERT 해서 원 거래를 선점한다.
+        // 동시에 들어온 같은 거래의 취소는 유니크 인덱스에 걸려 잔액 변경과 함께 롤백된다
+        Transaction cancelTransaction =
+                saveAndGetTransaction(CANCEL, S, account, amount, transactionId);
+        try {
+            transactionRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new AccountException(TRANSACTION_ALREADY_CANCELLED);
+        }
+        accountPortfolioCache.evictAfterCommit(account.getAccountUser().getId());
+        transactionQueryCache.evictAfterCommit(transactionId);
+
+        return TransactionDto.fromEntity(cancelTransaction);
     }
 
     private static void validateCancelBalance(Transaction transaction, Account account, Long amount) {
@@ -96,6 +177,11 @@ public class TransactionService {
         if (!Objects.equals(account.getAccountNumber(), transaction.getAccount().getAccountNumber())) {
             throw new AccountException(TRANSACTION_ACCOUNT_UNMATCH);
         }
+
+        // 취소 거래나 실패 거래를 취소하면 빠져나간 적 없는 금액이 잔액에 더해진다
+        if (transaction.getTransactionType() != USE || transaction.getTransactionResult() != S) {
+            throw new AccountException(TRANSACTION_NOT_CANCELLABLE);
+        }
     }
 
     @Transactional
@@ -106,11 +192,119 @@ public class TransactionService {
         saveAndGetTransaction(CANCEL, F, account, amount);
     }
 
+    /**
+     * 한 계좌의 거래들을 하나의 트랜잭션에서 순서대로 처리한다.
+     * 실패한 항목은 실패 거래로 저장하고 다음 항목을 계속 처리한다.
+     */
+    @Transactional
+    public List<TransactionDto> applyBatch(String accountNumber, List<BatchTransaction.Item> items) {
+        List<TransactionDto> results = new ArrayList<>(items.size());
+        for (BatchTransaction.Item item : items) {
+            try {
+                results.add(applyBatchItem(accountNumber, item));
+            } catch (AccountException e) {
+                results.add(saveFailedBatchItem(accountNumber, item, e.getErrorCode()));
+            }
+        }
+
+        return results;
+    }
+
+    private TransactionDto applyBatchItem(String accountNumber, BatchTransaction.Item item) {
+        if (item.getTransactionType() == USE && item.getUserId() != null) {
+            return useBalance(item.getUserId(), accountNumber, item.getAmount());
+        }
+        if (item.getTransactionType() == CANCEL && item.getTransactionId() != null) {
+            return cancelBalance(item.getTransactionId(), accountNumber, item.getAmount());
+        }
+
+        throw new AccountException(INVALID_REQUEST);
+    }
+
+    private TransactionDto saveFailedBatchItem(String accountNumber, BatchTransaction.Item item,
+                                               ErrorCode errorCode) {
+        TransactionDto transactionDto = accountRepository.findByAccountNumber(accountNumber)
+                .map(account -> TransactionDto.fromEntity(saveAndGetTransaction(
+                        item.getTransactionType(), F, account, item.getAmount())))
+                .orElseGet(() -> TransactionDto.builder()
+                        .accountNumber(accountNumber)
+                        .transactionType(item.getTransactionType())
+                        .transactionResult(F)
+                        .amount(item.getAmount())
+                        .build());
+        transactionDto.setErrorCode(errorCode);
+
+        return transactionDto;
+    }
+
     public TransactionDto queryTransaction(String transactionId) {
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+        // 잔액 엔진이 응답했지만 아직 DB 에 저장하지 않은 거래
+        BalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine != null) {
+            Optional<TransactionDto> unflushed = engine.findUnflushed(transactionId);
+            if (unflushed.isPresent()) {
+                return unflushed.get();
+            }
+        }
+
+        return transactionRepository.findDtoByTransactionId(transactionId)
                 .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+    }
 
-        return TransactionDto.fromEntity(transaction);
+    // 저장할 때 넣어 둔 응답이 있으면 DB 를 거치지 않는다
+    public QueryTransactionResponse queryTransactionResponse(String transactionId) {
+        return transactionQueryCache.get(transactionId, id -> {
+            TransactionDto transaction = queryTransaction(id);
+            return QueryTransactionResponse.from(transaction, isCancelled(transaction));
+        });
+    }
+
+    private boolean isCancelled(TransactionDto transaction) {
+        if (transaction.getTransactionType() != USE || transaction.getTransactionResult() != S) {
+            return false;
+        }
+        // 엔진은 취소를 DB 에 저장한 뒤에 목록에서 지우므로 엔진 다음에 DB 를 보면 빠지지 않는다
+        BalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine != null && engine.hasUnflushedCancel(transaction.getTransactionId())) {
+            return true;
+        }
+        return transactionRepository.existsByCancelledTransactionId(transaction.getTransactionId());
+    }
+
+    public TransactionHistory.Response getTransactionHistory(
+            String accountNumber,
+            TransactionType transactionType,
+            TransactionResult transactionResult,
+            LocalDateTime from,
+            LocalDateTime to,
+            String cursor,
+            int size) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+        accountRepository.findOwnerByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+
+        TransactionHistory.Cursor after = cursor == null ? null
+                : TransactionHistory.Cursor.decode(cursor);
+
+        // 한 건 더 읽어서 다음 페이지 존재 여부를 판단한다
+        List<TransactionHistory.Item> items = transactionRepository.findHistory(
+                accountNumber, transactionType, transactionResult, from, to, after, size + 1);
+
+        boolean hasNext = items.size() > size;
+        if (hasNext) {
+            items = items.subList(0, size);
+        }
+
+        return TransactionHistory.Response.builder()
+                .accountNumber(accountNumber)
+                .transactions(items)
+                .hasNext(hasNext)
+                .nextCursor(hasNext
+                        ? TransactionHistory.Cursor.from(items.get(size - 1)).encode()
+                        : null)
+                .build();
     }
 
     private Transaction saveAndGetTransaction(
@@ -118,16 +312,29 @@ public class TransactionService {
             TransactionResult transactionResult,
             Account account,
             Long amount) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .transactionType(transactionType)
-                        .transactionResult(transactionResult)
-                        .account(account)
-                        .amount(amount)
-                        .balanceSnapshot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", "")) // uuid로 만들기
-                        .transactedAt(LocalDateTime.now())
-                        .build()
-        );
+        return saveAndGetTransaction(transactionType, transactionResult, account, amount, null);
+    }
+
+    private Transaction saveAndGetTransaction(
+            TransactionType transactionType,
+            TransactionResult transactionResult,
+            Account account,
+            Long amount,
+            String cancelledTransactionId) {
+        Transaction transaction = Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResult(transactionResult)
+                .account(account)
+                .accountNumber(account.getAccountNumber())
+                .amount(amount)
+                .balanceSnapshot(account.getBalance())
+                .transactionId(transactionIdGenerator.generate())
+                .cancelledTransactionId(cancelledTransactionId)
+                .transactedAt(LocalDateTime.now())
+                .build();
+
+        Transaction saved = transactionRepository.save(transaction);
+        transactionQueryCache.putAfterCommit(QueryTransactionResponse.fromEntity(transaction));
+        return saved;
     }
 }
@@ -0,0 +1,18 @@
+package com.example.Account.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 기존 방식의 랜덤 UUID 아이디.
+ */
+@Component
+@ConditionalOnProperty(name = "account.transaction-id.generator", havingValue = "uuid")
+public class UuidTransactionIdGenerator implements TransactionIdGenerator {
+    @Override
+    public String generate() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
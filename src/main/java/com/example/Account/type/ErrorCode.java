@@ -20,7 +20,11 @@ public enum ErrorCode {
     TRANSACTION_NOT_FOUND("해당 거래가 없습니다."),
     CANCEL_MUST_FULLY("부분 취소는 허용되지 않습니다."),
     TRANSACTION_ACCOUNT_UNMATCH("이 거래는 해당 계좌에서 발생하지 않았습니다."),
-    ACCOUNT_TRANSACTION_LOCK("해당 계좌는 사용 중입니다.")
+    TRANSACTION_ALREADY_CANCELLED("이미 취소된 거래입니다."),
+    TRANSACTION_NOT_CANCELLABLE("성공한 잔액 사용 거래만 취소할 수 있습니다."),
+    ACCOUNT_TRANSACTION_LOCK("해당 계좌는 사용 중입니다."),
+    IDEMPOTENCY_KEY_IN_PROGRESS("같은 Idempotency-Key 로 처리 중인 요청이 있습니다."),
+    IDEMPOTENCY_KEY_REUSED("같은 Idempotency-Key 가 다른 요청 본문에 사용되었습니다.")
     ;
 
     private final String description;
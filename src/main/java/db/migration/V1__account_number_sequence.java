@@ -0,0 +1,40 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * 계좌번호 발급 블록 시퀀스 (AccountNumberAllocator).
+ * 기존 방식(마지막 계좌번호 + 1)으로 이미 발급한 번호와 겹치지 않도록
+ * 현재 가장 큰 계좌번호가 들어 있는 블록의 다음 블록부터 시작한다.
+ * 블록 크기는 spring.flyway.placeholders.account-number-block-size 로 받는다.
+ */
+public class V1__account_number_sequence extends BaseJavaMigration {
+    private static final long ACCOUNT_NUMBER_BASE = 1_000_000_000L;
+    private static final String BLOCK_SIZE_PLACEHOLDER = "account-number-block-size";
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        long blockSize = Long.parseLong(context.getConfiguration().getPlaceholders()
+                .getOrDefault(BLOCK_SIZE_PLACEHOLDER, "100"));
+
+        try (Statement statement = context.getConnection().createStatement()) {
+            long start = 0;
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT MAX(CAST(account_number AS BIGINT)) FROM account")) {
+                if (resultSet.next()) {
+                    long maxAccountNumber = resultSet.getLong(1);
+                    if (!resultSet.wasNull() && maxAccountNumber >= ACCOUNT_NUMBER_BASE) {
+                        start = (maxAccountNumber - ACCOUNT_NUMBER_BASE) / blockSize + 1;
+                    }
+                }
+            }
+
+            statement.execute("CREATE SEQUENCE IF NOT EXISTS account_number_seq " +
+                    "START WITH " + start + " INCREMENT BY 1");
+        }
+    }
+}
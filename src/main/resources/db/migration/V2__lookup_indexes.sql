@@ -0,0 +1,9 @@
+-- 계좌번호, 거래번호 조회용 유니크 인덱스
+CREATE UNIQUE INDEX IF NOT EXISTS uk_account_account_number
+    ON account (account_number);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_transaction_transaction_id
+    ON transaction (transaction_id);
+
+-- 계좌별 거래 조회용 인덱스
+CREATE INDEX IF NOT EXISTS idx_transaction_account_transacted_at
+    ON transaction (account_id, transacted_at);
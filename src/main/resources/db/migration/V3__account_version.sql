@@ -0,0 +1,2 @@
+-- 낙관적 락 버전 컬럼
+ALTER TABLE account ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,3 @@
+-- 엔티티 id 를 pooled 옵티마이저로 50개씩 할당 (allocationSize = 50)
+-- 현재 값에서 이어서 증가하므로 기존 id 와 겹치지 않는다
+ALTER SEQUENCE hibernate_sequence INCREMENT BY 50;
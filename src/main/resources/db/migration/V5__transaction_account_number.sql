@@ -0,0 +1,5 @@
+-- 거래 조회가 account 조인 없이 끝나도록 계좌번호를 거래 테이블에 비정규화
+ALTER TABLE transaction ADD COLUMN IF NOT EXISTS account_number VARCHAR(255);
+UPDATE transaction t SET account_number =
+    (SELECT a.account_number FROM account a WHERE a.id = t.account_id)
+WHERE t.account_number IS NULL;
@@ -0,0 +1,3 @@
+-- 계좌별 거래 내역 keyset 페이지네이션용 인덱스
+CREATE INDEX IF NOT EXISTS idx_transaction_account_number_transacted_at_id
+    ON transaction (account_number, transacted_at, id);
@@ -0,0 +1,3 @@
+-- 일자별 거래 내보내기용 인덱스 (정렬 없이 범위 스캔)
+CREATE INDEX IF NOT EXISTS idx_transaction_transacted_at_id
+    ON transaction (transacted_at, id);
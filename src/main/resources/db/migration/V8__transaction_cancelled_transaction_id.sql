@@ -0,0 +1,5 @@
+-- 취소 거래가 되돌린 원 거래 아이디. 유니크 인덱스로 같은 거래의 중복 취소를 막는다
+-- (기존 취소 거래는 원 거래를 알 수 없으므로 NULL 로 둔다)
+ALTER TABLE transaction ADD COLUMN IF NOT EXISTS cancelled_transaction_id VARCHAR(255);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_transaction_cancelled_transaction_id
+    ON transaction (cancelled_transaction_id);
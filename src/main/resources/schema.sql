@@ -0,0 +1,4 @@
+-- 계좌번호 발급 블록 시퀀스 (AccountNumberAllocator)
+-- 매번 새로 만드는 내장 H2 에서만 실행되므로 기존 계좌번호가 없다.
+-- 운영 DB 는 db.migration.V1__account_number_sequence 가 기존 계좌번호 다음 블록부터 시작한다
+CREATE SEQUENCE IF NOT EXISTS account_number_seq START WITH 0 INCREMENT BY 1;
@@ -1,15 +1,19 @@
 package com.example.Account.controller;
 
 import com.example.Account.dto.AccountDto;
+import com.example.Account.dto.AccountPortfolio;
+import com.example.Account.dto.BulkCreateAccount;
 import com.example.Account.dto.CreateAccount;
 import com.example.Account.dto.DeleteAccount;
 import com.example.Account.service.AccountService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -17,6 +21,8 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static com.example.Account.type.AccountStatus.IN_USE;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
@@ -26,6 +32,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AccountController.class)
+@Import(SimpleMeterRegistry.class)
 class AccountControllerTest {
     @MockBean
     private AccountService accountService;
@@ -61,6 +68,32 @@ class AccountControllerTest {
 
     }
 
+    @Test
+    @DisplayName("계좌 일괄 생성 성공")
+    void successCreateAccounts() throws Exception {
+        // given
+        given(accountService.createAccounts(anyList()))
+                .willReturn(Arrays.asList(
+                        AccountDto.builder().userId(1L).accountNumber("1234567890")
+                                .registeredAt(LocalDateTime.now()).build(),
+                        AccountDto.builder().userId(2L).accountNumber("1234567891")
+                                .registeredAt(LocalDateTime.now()).build()));
+
+        // when
+        // then
+        mockMvc.perform(post("/account/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BulkCreateAccount.Request(Arrays.asList(
+                                        new BulkCreateAccount.Item(1L, 100L),
+                                        new BulkCreateAccount.Item(2L, 0L)))
+                        )))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts[0].userId").value(1L))
+                .andExpect(jsonPath("$.accounts[1].accountNumber").value("1234567891"));
+    }
+
     @Test
     @DisplayName("계좌 해지 성공")
     void successDeleteAccount() throws Exception {
@@ -116,4 +149,29 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$[2].balance").value(300));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("계좌 요약 조회 성공")
+    void successGetPortfolio() throws Exception {
+        // given
+        given(accountService.getPortfolio(anyLong()))
+                .willReturn(AccountPortfolio.Response.builder()
+                        .userId(1L)
+                        .totalBalance(300L)
+                        .accounts(Arrays.asList(
+                                new AccountPortfolio.Item("1234567890", 100L, IN_USE),
+                                new AccountPortfolio.Item("1234567891", 200L, IN_USE)))
+                        .build());
+
+        // when
+        // then
+        mockMvc.perform(get("/account/portfolio?user_id=1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(1))
+                .andExpect(jsonPath("$.totalBalance").value(300))
+                .andExpect(jsonPath("$.accounts[0].accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$.accounts[1].balance").value(200))
+                .andExpect(jsonPath("$.accounts[1].accountStatus").value("IN_USE"));
+    }
+}
@@ -1,36 +1,68 @@
 package com.example.Account.controller;
 
+import com.example.Account.dto.BatchTransaction;
 import com.example.Account.dto.CancelBalance;
+import com.example.Account.dto.QueryTransactionResponse;
 import com.example.Account.dto.TransactionDto;
+import com.example.Account.dto.TransactionHistory;
 import com.example.Account.dto.UseBalance;
+import com.example.Account.service.BatchTransactionService;
+import com.example.Account.service.FailedTransactionWriter;
+import com.example.Account.service.TransactionExportService;
 import com.example.Account.service.TransactionService;
+import com.example.Account.type.ExportFormat;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 
 import static com.example.Account.type.TransactionResult.*;
+import static com.example.Account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.Account.type.TransactionType.CANCEL;
 import static com.example.Account.type.TransactionType.USE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
+@Import(SimpleMeterRegistry.class)
 class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private BatchTransactionService batchTransactionService;
+
+    @MockBean
+    private FailedTransactionWriter failedTransactionWriter;
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -92,7 +124,8 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.accountNumber").value("1000000000"))
                 .andExpect(jsonPath("$.transactionResult").value("S"))
                 .andExpect(jsonPath("$.transactionId").value("transactionIdForCancel"))
-                .andExpect(jsonPath("$.amount").value(54321));
+                .andExpect(jsonPath("$.amount").value(54321))
+                .andExpect(jsonPath("$.cancelled").value(false));
 
     }
 
@@ -100,21 +133,23 @@ class TransactionControllerTest {
     @DisplayName("거래 확인 성공")
     void successQueryTransaction() throws Exception {
         // given
-        given(transactionService.queryTransaction(anyString()))
-                .willReturn(TransactionDto.builder()
-                        .accountNumber("1000000000")
-                        .transactionType(USE)
-                        .transactionResult(S)
-                        .amount(54321L)
-                        .transactionId("transactionId")
-                        .transactedAt(LocalDateTime.now())
-                        .build());
+        QueryTransactionResponse response = QueryTransactionResponse.builder()
+                .accountNumber("1000000000")
+                .transactionType(USE)
+                .transactionResult(S)
+                .amount(54321L)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .build();
+        given(transactionService.queryTransactionResponse(anyString()))
+                .willReturn(response);
 
         // when
         // then
         mockMvc.perform(get("/transaction/12345"))
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", response.eTag()))
                 .andExpect(jsonPath("$.accountNumber").value("1000000000"))
                 .andExpect(jsonPath("$.transactionType").value("USE"))
                 .andExpect(jsonPath("$.transactionResult").value("S"))
@@ -122,4 +157,127 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value(54321));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("거래 확인 - ETag 가 같으면 304")
+    void notModifiedQueryTransaction() throws Exception {
+        // given
+        QueryTransactionResponse response = QueryTransactionResponse.builder()
+                .accountNumber("1000000000")
+                .transactionType(USE)
+                .transactionResult(S)
+                .amount(54321L)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .build();
+        given(transactionService.queryTransactionResponse(anyString()))
+                .willReturn(response);
+
+        // when
+        // then
+        mockMvc.perform(get("/transaction/12345")
+                        .header("If-None-Match", response.eTag()))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("일괄 거래 성공")
+    void successBatchTransaction() throws Exception {
+        // given
+        given(batchTransactionService.applyBatch(anyList()))
+                .willReturn(Arrays.asList(
+                        TransactionDto.builder()
+                                .accountNumber("1000000000")
+                                .transactionType(USE)
+                                .transactionResult(S)
+                                .amount(1000L)
+                                .transactionId("transactionId")
+                                .build(),
+                        TransactionDto.builder()
+                                .accountNumber("1000000000")
+                                .transactionType(CANCEL)
+                                .transactionResult(F)
+                                .amount(2000L)
+                                .errorCode(AMOUNT_EXCEED_BALANCE)
+                                .build()));
+
+        // when
+        // then
+        mockMvc.perform(post("/transaction/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BatchTransaction.Request(Arrays.asList(
+                                        BatchTransaction.Item.builder()
+                                                .transactionType(USE)
+                                                .userId(1L)
+                                                .accountNumber("1000000000")
+                                                .amount(1000L).build(),
+                                        BatchTransaction.Item.builder()
+                                                .transactionType(CANCEL)
+                                                .transactionId("transactionId")
+                                                .accountNumber("1000000000")
+                                                .amount(2000L).build()))
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].transactionResult").value("S"))
+                .andExpect(jsonPath("$.results[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.results[1].transactionResult").value("F"))
+                .andExpect(jsonPath("$.results[1].errorCode").value("AMOUNT_EXCEED_BALANCE"));
+
+    }
+
+    @Test
+    void successGetTransactionHistory() throws Exception {
+        // given
+        given(transactionService.getTransactionHistory(anyString(), eq(USE), isNull(),
+                any(), any(), isNull(), anyInt()))
+                .willReturn(TransactionHistory.Response.builder()
+                        .accountNumber("1000000000")
+                        .transactions(Arrays.asList(
+                                TransactionHistory.Item.builder()
+                                        .id(7L)
+                                        .transactionId("transactionId")
+                                        .transactionType(USE)
+                                        .transactionResult(S)
+                                        .amount(1000L)
+                                        .build()))
+                        .hasNext(true)
+                        .nextCursor("cursor")
+                        .build());
+
+        // when
+        // then
+        mockMvc.perform(get("/account/1000000000/transactions")
+                        .param("transaction_type", "USE")
+                        .param("from", "2022-11-01T00:00:00")
+                        .param("size", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.transactions[0].id").doesNotExist())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("cursor"));
+    }
+
+    @Test
+    void successExportTransactions() throws Exception {
+        // given
+        // when
+        // then
+        mockMvc.perform(get("/transaction/export")
+                        .param("date", "2022-11-01")
+                        .param("format", "CSV"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=transactions-2022-11-01.csv"));
+
+        verify(transactionExportService, times(1))
+                .export(eq(LocalDate.of(2022, 11, 1)), eq(ExportFormat.CSV), any());
+    }
+}
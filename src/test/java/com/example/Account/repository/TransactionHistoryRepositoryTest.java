@@ -0,0 +1,92 @@
+package com.example.Account.repository;
+
+import com.example.Account.domain.Transaction;
+import com.example.Account.dto.TransactionHistory;
+import com.example.Account.type.TransactionResult;
+import com.example.Account.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.Account.type.TransactionResult.F;
+import static com.example.Account.type.TransactionResult.S;
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class TransactionHistoryRepositoryTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2022, 11, 1, 10, 0);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        // trx1 ~ trx3 은 같은 시각
+        save("trx1", USE, S, BASE);
+        save("trx2", USE, F, BASE);
+        save("trx3", CANCEL, S, BASE);
+        save("trx4", USE, S, BASE.plusMinutes(1));
+        save("trx5", USE, S, BASE.plusMinutes(2));
+        save("other", USE, S, BASE.plusMinutes(3), "2000000000");
+    }
+
+    @Test
+    void readPagesAfterCursor() {
+        // given
+        List<TransactionHistory.Item> first = transactionRepository.findHistory(
+                "1000000000", null, null, null, null, null, 3);
+
+        // when
+        List<TransactionHistory.Item> second = transactionRepository.findHistory(
+                "1000000000", null, null, null, null,
+                TransactionHistory.Cursor.from(first.get(2)), 3);
+
+        // then
+        assertEquals(List.of("trx5", "trx4", "trx3"), transactionIds(first));
+        assertEquals(List.of("trx2", "trx1"), transactionIds(second));
+    }
+
+    @Test
+    void applyOnlyGivenFilters() {
+        // given
+        // when
+        List<TransactionHistory.Item> items = transactionRepository.findHistory(
+                "1000000000", USE, S, BASE, BASE.plusMinutes(2), null, 10);
+
+        // then
+        assertEquals(List.of("trx4", "trx1"), transactionIds(items));
+    }
+
+    private void save(String transactionId, TransactionType transactionType,
+                      TransactionResult transactionResult,
+                      LocalDateTime transactedAt) {
+        save(transactionId, transactionType, transactionResult, transactedAt, "1000000000");
+    }
+
+    private void save(String transactionId, TransactionType transactionType,
+                      TransactionResult transactionResult,
+                      LocalDateTime transactedAt, String accountNumber) {
+        transactionRepository.save(Transaction.builder()
+                .transactionId(transactionId)
+                .transactionType(transactionType)
+                .transactionResult(transactionResult)
+                .accountNumber(accountNumber)
+                .amount(1000L)
+                .balanceSnapshot(10000L)
+                .transactedAt(transactedAt)
+                .build());
+    }
+
+    private static List<String> transactionIds(List<TransactionHistory.Item> items) {
+        return items.stream()
+                .map(TransactionHistory.Item::getTransactionId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.Account.service;
+
+import com.example.Account.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Test
+    void allocateWithinBlock() {
+        // given
+        AccountNumberAllocator allocator = new AccountNumberAllocator(accountRepository, 100L);
+        given(accountRepository.getNextAccountNumberBlock())
+                .willReturn(0L);
+
+        // when
+        String first = allocator.allocate();
+        String second = allocator.allocate();
+
+        // then
+        verify(accountRepository, times(1)).getNextAccountNumberBlock();
+        assertEquals("1000000000", first);
+        assertEquals("1000000001", second);
+    }
+
+    @Test
+    void reserveNextBlockWhenExhausted() {
+        // given
+        AccountNumberAllocator allocator = new AccountNumberAllocator(accountRepository, 2L);
+        given(accountRepository.getNextAccountNumberBlock())
+                .willReturn(0L, 5L);
+
+        // when
+        allocator.allocate();
+        allocator.allocate();
+        String third = allocator.allocate();
+
+        // then
+        verify(accountRepository, times(2)).getNextAccountNumberBlock();
+        assertEquals("1000000010", third);
+    }
+
+    @Test
+    void allocateAcrossBlocks() {
+        // given
+        AccountNumberAllocator allocator = new AccountNumberAllocator(accountRepository, 3L);
+        given(accountRepository.getNextAccountNumberBlock())
+                .willReturn(0L, 1L, 2L);
+        allocator.allocate();
+
+        // when
+        List<String> numbers = allocator.allocate(5);
+
+        // then
+        verify(accountRepository, times(3)).getNextAccountNumberBlock();
+        assertEquals(Arrays.asList("1000000001", "1000000002", "1000000003",
+                "1000000004", "1000000005"), numbers);
+        assertEquals("1000000006", allocator.allocate());
+    }
+}
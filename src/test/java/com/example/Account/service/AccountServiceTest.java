@@ -3,6 +3,9 @@ package com.example.Account.service;
 import com.example.Account.domain.Account;
 import com.example.Account.domain.AccountUser;
 import com.example.Account.dto.AccountDto;
+import com.example.Account.dto.AccountPortfolio;
+import com.example.Account.dto.BulkCreateAccount;
+import com.example.Account.dto.UserAccountCount;
 import com.example.Account.exception.AccountException;
 import com.example.Account.repository.AccountRepository;
 import com.example.Account.repository.AccountUserRepository;
@@ -13,11 +16,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static com.example.Account.type.AccountStatus.*;
 import static com.example.Account.type.AccountStatus.IN_USE;
@@ -26,6 +36,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -37,6 +49,23 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    // 캐시를 끄고 매번 조회하도록 한다
+    @Spy
+    private AccountPortfolioCache accountPortfolioCache =
+            new AccountPortfolioCache(false, 100, Duration.ofMinutes(1));
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityIdAllocator entityIdAllocator;
+
+    @Mock
+    private ObjectProvider<BalanceEngine> balanceEngine;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -46,11 +75,10 @@ class AccountServiceTest {
         // given
         AccountUser accountUser = AccountUser.builder()
                 .id(1L).name("ryureeru").build();
-        given(accountUserRepository.findById(anyLong()))
+        given(accountUserRepository.findForUpdateById(anyLong()))
                 .willReturn(Optional.of((accountUser)));
-        given(accountRepository.findFirstByOrderByIdDes())
-                .willReturn(Optional.of(Account.builder()
-                        .accountNumber("1111111111").build()));
+        given(accountNumberAllocator.allocate())
+                .willReturn("1111111112");
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
                         .accountUser(accountUser)
@@ -71,7 +99,7 @@ class AccountServiceTest {
     @DisplayName("계좌 생성 실패 - 사용자 없는 경우")
     void createAccountFailed_UserNotFound() {
         // given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountUserRepository.findForUpdateById(anyLong()))
                 .willReturn(Optional.empty());
 
         // when
@@ -88,7 +116,7 @@ class AccountServiceTest {
         // given
         AccountUser accountUser = AccountUser.builder()
                 .id(1L).name("ryureeru").build();
-        given(accountUserRepository.findById(anyLong()))
+        given(accountUserRepository.findForUpdateById(anyLong()))
                 .willReturn(Optional.of((accountUser)));
         given(accountRepository.countByAccountUser(any()))
                 .willReturn(10);
@@ -128,6 +156,34 @@ class AccountServiceTest {
         assertEquals(UNREGISTERED, captor.getValue().getAccountStatus());
     }
 
+    @Test
+    @DisplayName("계좌 해지 성공 - 잔액 엔진 사용 시 계좌 shard 에서 해지")
+    void deleteAccountThroughBalanceEngine() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .id(1L).name("ryureeru").build();
+        BalanceEngine engine = mock(BalanceEngine.class);
+        given(balanceEngine.getIfAvailable()).willReturn(engine);
+        given(engine.executeExclusively(eq("1234567890"), any()))
+                .willAnswer(invocation -> invocation.<Supplier<AccountDto>>getArgument(1).get());
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of((accountUser)));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(accountUser)
+                        .accountNumber("1234567890")
+                        .accountStatus(IN_USE)
+                        .balance(0L).build()));
+
+        // when
+        AccountDto accountDto = accountService.deleteAccount(1L, "1234567890");
+
+        // then
+        verify(engine, times(1)).executeExclusively(eq("1234567890"), any());
+        verify(accountRepository, times(1)).save(any());
+        assertEquals("1234567890", accountDto.getAccountNumber());
+    }
+
     @Test
     @DisplayName("계좌 해지 실패 - 사용자 없는 경우")
     void deleteAccountFailed_UserNotFound() {
@@ -249,26 +305,26 @@ class AccountServiceTest {
         // given
         AccountUser accountUser = AccountUser.builder()
                 .id(1L).name("ryureeru").build();
-        List<Account> accounts = Arrays.asList(
-                Account.builder()
-                        .accountUser(accountUser)
+        List<AccountDto> accounts = Arrays.asList(
+                AccountDto.builder()
+                        .userId(1L)
                         .accountNumber("1111111111")
                         .balance(100L)
                         .build(),
-                Account.builder()
-                        .accountUser(accountUser)
+                AccountDto.builder()
+                        .userId(1L)
                         .accountNumber("1111111112")
                         .balance(200L)
                         .build(),
-                Account.builder()
-                        .accountUser(accountUser)
+                AccountDto.builder()
+                        .userId(1L)
                         .accountNumber("1111111113")
                         .balance(300L)
                         .build()
         );
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(accountUser));
-        given(accountRepository.findByAccountUser(any()))
+        given(accountRepository.findDtoByAccountUserId(anyLong()))
                 .willReturn(accounts);
 
         //when
@@ -300,4 +356,131 @@ class AccountServiceTest {
         assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("계좌 요약 조회 성공")
+    void getPortfolioSuccess() {
+        // given
+        given(accountRepository.findPortfolioByUserId(anyLong()))
+                .willReturn(Arrays.asList(
+                        new AccountPortfolio.Item("1111111111", 100L, IN_USE),
+                        new AccountPortfolio.Item("1111111112", 0L, UNREGISTERED),
+                        new AccountPortfolio.Item("1111111113", 300L, IN_USE)));
+
+        // when
+        AccountPortfolio.Response portfolio = accountService.getPortfolio(1L);
+
+        // then
+        assertEquals(1L, portfolio.getUserId());
+        assertEquals(400L, portfolio.getTotalBalance());
+        assertEquals(3, portfolio.getAccounts().size());
+        assertEquals(UNREGISTERED, portfolio.getAccounts().get(1).getAccountStatus());
+        verify(accountUserRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("계좌 요약 조회 성공 - 계좌 없는 사용자")
+    void getPortfolioSuccess_NoAccount() {
+        // given
+        given(accountRepository.findPortfolioByUserId(anyLong()))
+                .willReturn(Collections.singletonList(new AccountPortfolio.Item(null, null, null)));
+
+        // when
+        AccountPortfolio.Response portfolio = accountService.getPortfolio(1L);
+
+        // then
+        assertEquals(0L, portfolio.getTotalBalance());
+        assertTrue(portfolio.getAccounts().isEmpty());
+    }
+
+    @Test
+    @DisplayName("계좌 요약 조회 실패 - 사용자 없는 경우")
+    void getPortfolioFailed_UserNotFound() {
+        // given
+        given(accountRepository.findPortfolioByUserId(anyLong()))
+                .willReturn(Collections.emptyList());
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.getPortfolio(1L));
+
+        // then
+        assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("계좌 일괄 생성 성공 - 배치 크기 단위로 INSERT")
+    @SuppressWarnings("unchecked")
+    void createAccountsSuccess() {
+        // given
+        ReflectionTestUtils.setField(accountService, "bulkBatchSize", 2);
+        List<BulkCreateAccount.Item> items = Arrays.asList(
+                new BulkCreateAccount.Item(1L, 100L),
+                new BulkCreateAccount.Item(2L, 200L),
+                new BulkCreateAccount.Item(1L, 300L));
+        given(accountRepository.countAccountsByUserIds(anyCollection()))
+                .willReturn(Arrays.asList(
+                        new UserAccountCount(1L, 8L),
+                        new UserAccountCount(2L, 0L)));
+        given(accountNumberAllocator.allocate(3))
+                .willReturn(Arrays.asList("1000000000", "1000000001", "1000000002"));
+        given(entityIdAllocator.allocate(Account.class, 3))
+                .willReturn(Arrays.asList(51L, 52L, 53L));
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        List<AccountDto> accountDtos = accountService.createAccounts(items);
+
+        // then
+        verify(accountUserRepository, times(1))
+                .findForUpdateByIdInOrderByIdAsc(Arrays.asList(1L, 2L));
+        verify(accountRepository, times(1)).countAccountsByUserIds(anyCollection());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), captor.capture());
+        assertEquals(2, captor.getAllValues().get(0).size());
+        assertEquals(1, captor.getAllValues().get(1).size());
+        assertEquals(53L, captor.getAllValues().get(1).get(0)[0]);
+        assertEquals(3, accountDtos.size());
+        assertEquals("1000000002", accountDtos.get(2).getAccountNumber());
+        assertEquals(1L, accountDtos.get(2).getUserId());
+        assertEquals(300L, accountDtos.get(2).getBalance());
+    }
+
+    @Test
+    @DisplayName("계좌 일괄 생성 실패 - 사용자 최대 계좌 초과")
+    void createAccountsFailed_MaxAccountIs10() {
+        // given
+        List<BulkCreateAccount.Item> items = Arrays.asList(
+                new BulkCreateAccount.Item(1L, 100L),
+                new BulkCreateAccount.Item(1L, 200L));
+        given(accountRepository.countAccountsByUserIds(anyCollection()))
+                .willReturn(Collections.singletonList(new UserAccountCount(1L, 9L)));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.createAccounts(items));
+
+        // then
+        assertEquals(MAX_ACCOUNT_PER_USER_10, exception.getErrorCode());
+        verify(accountNumberAllocator, never()).allocate(anyInt());
+    }
+
+    @Test
+    @DisplayName("계좌 일괄 생성 실패 - 사용자 없는 경우")
+    @SuppressWarnings("unchecked")
+    void createAccountsFailed_UserNotFound() {
+        // given
+        List<BulkCreateAccount.Item> items = Arrays.asList(
+                new BulkCreateAccount.Item(1L, 100L),
+                new BulkCreateAccount.Item(2L, 200L));
+        given(accountRepository.countAccountsByUserIds(anyCollection()))
+                .willReturn(Collections.singletonList(new UserAccountCount(1L, 0L)));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.createAccounts(items));
+
+        // then
+        assertEquals(USER_NOT_FOUND, exception.getErrorCode());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(List.class));
+    }
+}
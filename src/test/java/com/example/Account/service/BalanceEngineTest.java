@@ -0,0 +1,375 @@
+package com.example.Account.service;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.AccountUser;
+import com.example.Account.domain.Transaction;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.AccountUserRepository;
+import com.example.Account.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.Account.type.AccountStatus.IN_USE;
+import static com.example.Account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.Account.type.ErrorCode.CANCEL_MUST_FULLY;
+import static com.example.Account.type.ErrorCode.INTERNAL_SERVER_ERROR;
+import static com.example.Account.type.ErrorCode.TRANSACTION_ALREADY_CANCELLED;
+import static com.example.Account.type.ErrorCode.TRANSACTION_NOT_CANCELLABLE;
+import static com.example.Account.type.TransactionResult.F;
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceEngineTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountUserRepository accountUserRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Mock
+    private BalanceJournal journal;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AccountPortfolioCache accountPortfolioCache;
+
+    @Mock
+    private TransactionQueryCache transactionQueryCache;
+
+    private BalanceEngine balanceEngine;
+
+    private final AccountUser accountUser = AccountUser.builder()
+            .id(1L).name("ryureeru").build();
+
+    @BeforeEach
+    void setUp() {
+        balanceEngine = new BalanceEngine(accountRepository, accountUserRepository,
+                transactionRepository, transactionIdGenerator, journal,
+                new TransactionTemplate(transactionManager), accountPortfolioCache, transactionQueryCache,
+                false, 2, 100, 10L);
+        lenient().when(journal.appendAsync(any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        balanceEngine.stop();
+    }
+
+    @Test
+    void useAndCancelBeforeFlush() throws IOException {
+        // given
+        givenAccount(10000L);
+        given(transactionIdGenerator.generate()).willReturn("trx1", "trx2");
+
+        // when
+        TransactionDto used = balanceEngine.useBalance(1L, "1000000000", 1000L);
+        TransactionDto cancelled = balanceEngine.cancelBalance("trx1", "1000000000", 1000L);
+
+        // then
+        assertEquals(9000L, used.getBalanceSnapshot());
+        assertEquals(10000L, cancelled.getBalanceSnapshot());
+        assertEquals(CANCEL, cancelled.getTransactionType());
+        verify(journal, times(2)).appendAsync(any());
+        verify(transactionRepository, never()).findDtoByTransactionId(anyString());
+        verify(transactionQueryCache, times(1)).evictAfterCommit("trx1");
+    }
+
+    @Test
+    void findUnflushedUntilPersisted() throws Exception {
+        // given
+        givenAccount(10000L);
+        given(transactionIdGenerator.generate()).willReturn("trx1");
+        given(journal.recover()).willReturn(Collections.emptyList());
+        given(journal.lastSequence()).willReturn(0L);
+        // DB 저장을 붙잡아 두고 저장 전 조회를 확인한다
+        CountDownLatch persistLatch = new CountDownLatch(1);
+        given(transactionRepository.saveAll(anyList())).willAnswer(invocation -> {
+            persistLatch.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        balanceEngine.start();
+        balanceEngine.useBalance(1L, "1000000000", 1000L);
+
+        // when
+        Optional<TransactionDto> beforeFlush = balanceEngine.findUnflushed("trx1");
+        persistLatch.countDown();
+        balanceEngine.stop();
+        Optional<TransactionDto> afterFlush = balanceEngine.findUnflushed("trx1");
+
+        // then
+        assertTrue(beforeFlush.isPresent());
+        assertEquals(9000L, beforeFlush.get().getBalanceSnapshot());
+        assertFalse(afterFlush.isPresent());
+    }
+
+    @Test
+    void failDoubleCancelBeforeFlush() throws IOException {
+        // given
+        givenAccount(10000L);
+        given(transactionIdGenerator.generate()).willReturn("trx1", "trx2");
+        balanceEngine.useBalance(1L, "1000000000", 1000L);
+        balanceEngine.cancelBalance("trx1", "1000000000", 1000L);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> balanceEngine.cancelBalance("trx1", "1000000000", 1000L));
+
+        // then
+        assertEquals(TRANSACTION_ALREADY_CANCELLED, exception.getErrorCode());
+        verify(journal, times(2)).appendAsync(any());
+    }
+
+    @Test
+    void failUseBalanceWithoutJournaling() throws IOException {
+        // given
+        givenAccount(500L);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> balanceEngine.useBalance(1L, "1000000000", 1000L));
+
+        // then
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(journal, never()).appendAsync(any());
+    }
+
+    @Test
+    void pipelineHotAccountBeforeSync() throws Exception {
+        // given
+        givenAccount(10000L);
+        given(transactionIdGenerator.generate()).willReturn("trx1", "trx2");
+        CompletableFuture<Void> firstSync = new CompletableFuture<>();
+        CompletableFuture<Void> secondSync = new CompletableFuture<>();
+        given(journal.appendAsync(any())).willReturn(firstSync, secondSync);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        // when
+        Future<TransactionDto> first = callers.submit(
+                () -> balanceEngine.useBalance(1L, "1000000000", 1000L));
+        verify(journal, timeout(1000).times(1)).appendAsync(any());
+        Future<TransactionDto> second = callers.submit(
+                () -> balanceEngine.useBalance(1L, "1000000000", 2000L));
+
+        // then
+        // 첫 거래가 디스크에 내려가기 전에 같은 계좌의 다음 거래가 저널에 쓰인다
+        verify(journal, timeout(1000).times(2)).appendAsync(any());
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+        firstSync.complete(null);
+        secondSync.complete(null);
+        assertEquals(9000L, first.get(1, TimeUnit.SECONDS).getBalanceSnapshot());
+        assertEquals(7000L, second.get(1, TimeUnit.SECONDS).getBalanceSnapshot());
+        callers.shutdown();
+    }
+
+    @Test
+    void stopAcceptingAfterSyncFailure() {
+        // given
+        givenAccount(10000L);
+        given(transactionIdGenerator.generate()).willReturn("trx1", "trx2");
+        CompletableFuture<Void> sync = new CompletableFuture<>();
+        given(journal.appendAsync(any())).willReturn(sync);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        Future<TransactionDto> first = caller.submit(
+                () -> balanceEngine.useBalance(1L, "1000000000", 1000L));
+        verify(journal, timeout(1000)).appendAsync(any());
+
+        // when
+        sync.completeExceptionally(new IOException("sync failed"));
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> first.get(1, TimeUnit.SECONDS));
+        AccountException rejected = assertThrows(AccountException.class,
+                () -> balanceEngine.useBalance(1L, "1000000000", 1000L));
+
+        // then
+        assertEquals(INTERNAL_SERVER_ERROR, ((AccountException) failed.getCause()).getErrorCode());
+        assertEquals(INTERNAL_SERVER_ERROR, rejected.getErrorCode());
+        verify(journal, times(1)).appendAsync(any());
+        assertTrue(balanceEngine.findUnflushed("trx1").isEmpty());
+        caller.shutdown();
+    }
+
+    @Test
+    void failPartialCancel() {
+        // given
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000000").amount(1000L).build()));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> balanceEngine.cancelBalance("trx1", "1000000000", 500L));
+
+        // then
+        assertEquals(CANCEL_MUST_FULLY, exception.getErrorCode());
+    }
+
+    @Test
+    void failCancelOfCancelTransaction() {
+        // given
+        givenAccount(10000L);
+        given(transactionIdGenerator.generate()).willReturn("trx1", "trx2");
+        balanceEngine.useBalance(1L, "1000000000", 1000L);
+        balanceEngine.cancelBalance("trx1", "1000000000", 1000L);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> balanceEngine.cancelBalance("trx2", "1000000000", 1000L));
+
+        // then
+        assertEquals(TRANSACTION_NOT_CANCELLABLE, exception.getErrorCode());
+        verify(journal, times(2)).appendAsync(any());
+    }
+
+    @Test
+    void failCancelOfFailedTransaction() {
+        // given
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000000").amount(1000L)
+                        .transactionType(USE).transactionResult(F).build()));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> balanceEngine.cancelBalance("trx1", "1000000000", 1000L));
+
+        // then
+        assertEquals(TRANSACTION_NOT_CANCELLABLE, exception.getErrorCode());
+        verify(journal, never()).appendAsync(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void persistInBatchesAndCheckpoint() throws Exception {
+        // given
+        givenAccount(10000L);
+        given(transactionIdGenerator.generate()).willReturn("trx1", "trx2");
+        given(journal.recover()).willReturn(Collections.emptyList());
+        given(journal.lastSequence()).willReturn(0L);
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        balanceEngine.start();
+
+        // when
+        balanceEngine.useBalance(1L, "1000000000", 1000L);
+        balanceEngine.useBalance(1L, "1000000000", 2000L);
+        balanceEngine.stop();
+
+        // then
+        verify(transactionRepository, atLeastOnce()).saveAll(captor.capture());
+        assertEquals(2, captor.getAllValues().stream().mapToInt(List::size).sum());
+        verify(accountRepository, atLeastOnce())
+                .updateBalance(eq("1000000000"), eq(7000L), any());
+        verify(journal, atLeastOnce()).checkpoint(2L);
+        verify(accountPortfolioCache, atLeastOnce()).evictAfterCommit(1L);
+        verify(transactionQueryCache, times(2)).putAfterCommit(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replayJournalOnStart() throws Exception {
+        // given
+        LocalDateTime transactedAt = LocalDateTime.now();
+        given(journal.recover()).willReturn(Arrays.asList(
+                new JournalRecord(3, USE, "trx3", 1L, "1000000000", 1000L, 9000L, transactedAt, null),
+                new JournalRecord(4, USE, "trx4", 1L, "1000000000", 1000L, 8000L, transactedAt, null)));
+        given(journal.lastSequence()).willReturn(4L);
+        given(transactionRepository.findExistingTransactionIds(anyCollection()))
+                .willReturn(Collections.singletonList("trx3"));
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        balanceEngine.start();
+
+        // then
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("trx4", captor.getValue().get(0).getTransactionId());
+        verify(accountRepository, times(1))
+                .updateBalance(eq("1000000000"), eq(8000L), any());
+        verify(journal, times(1)).checkpoint(4L);
+    }
+
+    @Test
+    void executeExclusivelyAfterPersistAndReloadAccount() throws Exception {
+        // given
+        givenAccount(10000L);
+        given(transactionIdGenerator.generate()).willReturn("trx1", "trx2");
+        given(journal.recover()).willReturn(Collections.emptyList());
+        given(journal.lastSequence()).willReturn(0L);
+        balanceEngine.start();
+        balanceEngine.useBalance(1L, "1000000000", 1000L);
+
+        // when
+        String result = balanceEngine.executeExclusively("1000000000", () -> {
+            // 엔진이 받은 거래가 먼저 DB 에 저장되어 있어야 한다
+            verify(accountRepository, times(1))
+                    .updateBalance(eq("1000000000"), eq(9000L), any());
+            return "unregistered";
+        });
+        balanceEngine.useBalance(1L, "1000000000", 1000L);
+
+        // then
+        assertEquals("unregistered", result);
+        verify(accountRepository, times(2)).findByAccountNumber("1000000000");
+    }
+
+    @Test
+    void rejectAtomicUpdate() {
+        // when
+        // then
+        assertThrows(IllegalStateException.class, () -> new BalanceEngine(accountRepository,
+                accountUserRepository, transactionRepository, transactionIdGenerator, journal,
+                new TransactionTemplate(transactionManager), accountPortfolioCache, transactionQueryCache,
+                true, 2, 100, 10L));
+    }
+
+    private void givenAccount(long balance) {
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .id(1L)
+                        .accountUser(accountUser)
+                        .accountNumber("1000000000")
+                        .accountStatus(IN_USE)
+                        .balance(balance)
+                        .build()));
+    }
+}
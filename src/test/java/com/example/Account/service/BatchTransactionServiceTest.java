@@ -0,0 +1,135 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.BatchTransaction;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.Account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.Account.type.TransactionResult.F;
+import static com.example.Account.type.TransactionResult.S;
+import static com.example.Account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchTransactionServiceTest {
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private LockLeasePolicy lockLeasePolicy;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private FailedTransactionWriter failedTransactionWriter;
+
+    @Mock
+    private ObjectProvider<BalanceEngine> balanceEngine;
+
+    @InjectMocks
+    private BatchTransactionService batchTransactionService;
+
+    @Test
+    void lockOncePerAccountAndKeepRequestOrder() {
+        // given
+        List<BatchTransaction.Item> items = Arrays.asList(
+                useItem("1000000000", 100L),
+                useItem("2000000000", 200L),
+                useItem("1000000000", 300L));
+        given(transactionService.applyBatch(eq("1000000000"), anyList()))
+                .willReturn(Arrays.asList(success("1000000000", 100L), success("1000000000", 300L)));
+        given(transactionService.applyBatch(eq("2000000000"), anyList()))
+                .willReturn(Collections.singletonList(success("2000000000", 200L)));
+
+        // when
+        List<TransactionDto> results = batchTransactionService.applyBatch(items);
+
+        // then
+        verify(lockService, times(1)).lock(eq("1000000000"), anyLong(), anyLong());
+        verify(lockService, times(1)).lock(eq("2000000000"), anyLong(), anyLong());
+        verify(lockService, times(1)).unlock("1000000000");
+        verify(lockService, times(1)).unlock("2000000000");
+        assertEquals(100L, results.get(0).getAmount());
+        assertEquals(200L, results.get(1).getAmount());
+        assertEquals(300L, results.get(2).getAmount());
+    }
+
+    @Test
+    void failAllItemsOfAccountWhenLockFailed() {
+        // given
+        List<BatchTransaction.Item> items = Arrays.asList(
+                useItem("1000000000", 100L),
+                useItem("1000000000", 300L));
+        willThrow(new AccountException(ACCOUNT_TRANSACTION_LOCK))
+                .given(lockService).lock(anyString(), anyLong(), anyLong());
+
+        // when
+        List<TransactionDto> results = batchTransactionService.applyBatch(items);
+
+        // then
+        verify(transactionService, never()).applyBatch(anyString(), anyList());
+        verify(lockService, never()).unlock(anyString());
+        assertEquals(F, results.get(0).getTransactionResult());
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, results.get(0).getErrorCode());
+        assertEquals(F, results.get(1).getTransactionResult());
+    }
+
+    @Test
+    void applyThroughBalanceEngineWithoutLock() {
+        // given
+        BalanceEngine engine = mock(BalanceEngine.class);
+        given(balanceEngine.getIfAvailable()).willReturn(engine);
+        given(engine.useBalance(1L, "1000000000", 100L))
+                .willReturn(success("1000000000", 100L));
+        given(engine.useBalance(1L, "1000000000", 300L))
+                .willThrow(new AccountException(AMOUNT_EXCEED_BALANCE));
+        List<BatchTransaction.Item> items = Arrays.asList(
+                useItem("1000000000", 100L),
+                useItem("1000000000", 300L));
+
+        // when
+        List<TransactionDto> results = batchTransactionService.applyBatch(items);
+
+        // then
+        verify(lockService, never()).lock(anyString(), anyLong(), anyLong());
+        verify(transactionService, never()).applyBatch(anyString(), anyList());
+        verify(failedTransactionWriter, times(1)).write(USE, "1000000000", 300L);
+        assertEquals(S, results.get(0).getTransactionResult());
+        assertEquals(F, results.get(1).getTransactionResult());
+        assertEquals(AMOUNT_EXCEED_BALANCE, results.get(1).getErrorCode());
+    }
+
+    private static BatchTransaction.Item useItem(String accountNumber, Long amount) {
+        return BatchTransaction.Item.builder()
+                .transactionType(USE)
+                .userId(1L)
+                .accountNumber(accountNumber)
+                .amount(amount)
+                .build();
+    }
+
+    private static TransactionDto success(String accountNumber, Long amount) {
+        return TransactionDto.builder()
+                .accountNumber(accountNumber)
+                .transactionType(USE)
+                .transactionResult(S)
+                .amount(amount)
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.Account.service;
+
+import com.example.Account.domain.AccountUser;
+import com.example.Account.domain.Transaction;
+import com.example.Account.repository.AccountUserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(EntityIdAllocator.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityIdAllocatorTest {
+    @Autowired
+    private EntityIdAllocator entityIdAllocator;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("id 100개 = 시퀀스 호출 2~3회 (allocationSize 50)")
+    void allocateFromPooledOptimizer() {
+        // given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        List<Long> ids = entityIdAllocator.allocate(Transaction.class, 100);
+        long statements = statistics.getPrepareStatementCount();
+        AccountUser accountUser = accountUserRepository.save(
+                AccountUser.builder().name("ryu").build());
+
+        // then
+        assertEquals(100, new HashSet<>(ids).size());
+        assertTrue(statements <= 3, "statements : " + statements);
+        assertFalse(ids.contains(accountUser.getId()));
+    }
+}
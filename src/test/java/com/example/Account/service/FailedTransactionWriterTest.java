@@ -0,0 +1,160 @@
+package com.example.Account.service;
+
+import com.example.Account.domain.Transaction;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionWriterTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityIdAllocator entityIdAllocator;
+
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void writeSynchronously() throws InterruptedException {
+        // given
+        FailedTransactionWriter writer = new FailedTransactionWriter(
+                transactionService, jdbcTemplate, entityIdAllocator, transactionIdGenerator, meterRegistry,
+                false, 10, 5, 10L, 10L);
+        writer.start();
+
+        // when
+        writer.write(USE, "1000000000", 1000L);
+        writer.write(CANCEL, "1000000000", 2000L);
+        writer.stop();
+
+        // then
+        verify(transactionService, times(1)).saveFailedUseTransaction("1000000000", 1000L);
+        verify(transactionService, times(1)).saveFailedCancelTransaction("1000000000", 2000L);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeInBatchesAndFlushOnStop() throws InterruptedException {
+        // given
+        FailedTransactionWriter writer = new FailedTransactionWriter(
+                transactionService, jdbcTemplate, entityIdAllocator, transactionIdGenerator, meterRegistry,
+                true, 10, 5, 10L, 10L);
+        givenIds();
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        given(jdbcTemplate.batchUpdate(anyString(), anyList())).willAnswer(invocation -> {
+            int[] counts = new int[invocation.<List<Object[]>>getArgument(1).size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        writer.start();
+
+        // when
+        for (int i = 0; i < 7; i++) {
+            writer.write(USE, "1000000000", 1000L);
+        }
+        writer.stop();
+
+        // then
+        verify(transactionService, never()).saveFailedUseTransaction(anyString(), anyLong());
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), captor.capture());
+        assertEquals(7, captor.getAllValues().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void countRecordForMissingAccount() throws InterruptedException {
+        // given
+        FailedTransactionWriter writer = new FailedTransactionWriter(
+                transactionService, jdbcTemplate, entityIdAllocator, transactionIdGenerator, meterRegistry,
+                true, 10, 5, 10L, 10L);
+        givenIds();
+        given(jdbcTemplate.batchUpdate(anyString(), anyList())).willReturn(new int[]{0});
+        writer.start();
+
+        // when
+        writer.write(USE, "9999999999", 1000L);
+        writer.stop();
+
+        // then
+        assertEquals(1.0, meterRegistry.counter("account.failed.transaction.dropped",
+                "reason", "account_not_found").count());
+    }
+
+    @Test
+    void retryFailedBatchThenWriteOneByOne() throws InterruptedException {
+        // given
+        FailedTransactionWriter writer = new FailedTransactionWriter(
+                transactionService, jdbcTemplate, entityIdAllocator, transactionIdGenerator, meterRegistry,
+                true, 10, 5, 10L, 10L);
+        givenIds();
+        given(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .willThrow(new TransientDataAccessResourceException("connection lost"));
+        given(jdbcTemplate.update(anyString(), (Object[]) any())).willReturn(1);
+        writer.start();
+
+        // when
+        writer.write(USE, "1000000000", 1000L);
+        writer.stop();
+
+        // then
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyList());
+        verify(jdbcTemplate, times(1)).update(anyString(), (Object[]) any());
+        assertEquals(0.0, meterRegistry.counter("account.failed.transaction.dropped",
+                "reason", "write_error").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeWithIdsFromEntityIdGenerator() throws InterruptedException {
+        // given
+        FailedTransactionWriter writer = new FailedTransactionWriter(
+                transactionService, jdbcTemplate, entityIdAllocator, transactionIdGenerator, meterRegistry,
+                true, 10, 5, 10L, 10L);
+        given(entityIdAllocator.allocate(Transaction.class, 1))
+                .willReturn(Collections.singletonList(101L));
+        given(jdbcTemplate.batchUpdate(anyString(), anyList())).willReturn(new int[]{1});
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        writer.start();
+
+        // when
+        writer.write(USE, "1000000000", 1000L);
+        writer.stop();
+
+        // then
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), captor.capture());
+        assertEquals(101L, captor.getValue().get(0)[0]);
+    }
+
+    private void givenIds() {
+        given(entityIdAllocator.allocate(eq(Transaction.class), anyInt()))
+                .willAnswer(invocation -> LongStream.rangeClosed(1, invocation.<Integer>getArgument(1))
+                        .boxed()
+                        .collect(Collectors.toList()));
+    }
+}
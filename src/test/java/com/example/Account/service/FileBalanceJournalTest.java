@@ -0,0 +1,93 @@
+package com.example.Account.service;
+
+import com.example.Account.type.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FileBalanceJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoverRecordsAfterCheckpoint() throws IOException {
+        // given
+        FileBalanceJournal journal = new FileBalanceJournal(directory.toString());
+        journal.append(record(1, USE, 9000));
+        journal.append(record(2, USE, 8000));
+        journal.append(record(3, CANCEL, 9000));
+        journal.checkpoint(1);
+        journal.close();
+
+        // when
+        FileBalanceJournal reopened = new FileBalanceJournal(directory.toString());
+        List<JournalRecord> records = reopened.recover();
+
+        // then
+        assertEquals(2, records.size());
+        assertEquals(2, records.get(0).getSequence());
+        assertEquals(CANCEL, records.get(1).getTransactionType());
+        assertEquals(9000, records.get(1).getBalanceSnapshot());
+        assertEquals("trx3", records.get(1).getTransactionId());
+        assertEquals(3, reopened.lastSequence());
+        reopened.close();
+    }
+
+    @Test
+    void truncateWhenFullyCheckpointed() throws IOException {
+        // given
+        FileBalanceJournal journal = new FileBalanceJournal(directory.toString());
+        journal.append(record(1, USE, 9000));
+        journal.append(record(2, USE, 8000));
+
+        // when
+        journal.checkpoint(2);
+        journal.close();
+
+        // then
+        assertEquals(0, Files.size(directory.resolve("balance.journal")));
+        FileBalanceJournal reopened = new FileBalanceJournal(directory.toString());
+        assertEquals(0, reopened.recover().size());
+        assertEquals(2, reopened.lastSequence());
+        reopened.close();
+    }
+
+    @Test
+    void dropTornTail() throws IOException {
+        // given
+        FileBalanceJournal journal = new FileBalanceJournal(directory.toString());
+        journal.append(record(1, USE, 9000));
+        journal.close();
+        Files.write(directory.resolve("balance.journal"), new byte[]{0, 0, 0, 100, 1, 2},
+                StandardOpenOption.APPEND);
+
+        // when
+        FileBalanceJournal reopened = new FileBalanceJournal(directory.toString());
+        List<JournalRecord> records = reopened.recover();
+        reopened.append(record(2, USE, 8000));
+        reopened.close();
+
+        // then
+        assertEquals(1, records.size());
+        FileBalanceJournal again = new FileBalanceJournal(directory.toString());
+        assertEquals(2, again.recover().size());
+        again.close();
+    }
+
+    private static JournalRecord record(long sequence,
+                                        TransactionType transactionType,
+                                        long balance) {
+        return new JournalRecord(sequence, transactionType, "trx" + sequence, 1L,
+                "1000000000", 1000L, balance, LocalDateTime.of(2022, 11, 1, 10, 0), null);
+    }
+}
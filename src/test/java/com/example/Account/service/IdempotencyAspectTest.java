@@ -0,0 +1,162 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.UseBalance;
+import com.example.Account.exception.AccountException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+import static com.example.Account.service.IdempotencyAspect.IDEMPOTENCY_KEY_HEADER;
+import static com.example.Account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.Account.type.ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS;
+import static com.example.Account.type.ErrorCode.IDEMPOTENCY_KEY_REUSED;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyAspectTest {
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private MethodSignature methodSignature;
+
+    private final MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+
+    private final UseBalance.Request request =
+            new UseBalance.Request(1L, "1000000000", 1000L);
+
+    private LocalIdempotencyStore idempotencyStore;
+
+    private IdempotencyAspect idempotencyAspect;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new LocalIdempotencyStore(100, Duration.ofMinutes(1), Duration.ofMillis(200));
+        idempotencyAspect = new IdempotencyAspect(idempotencyStore, new ObjectMapper(),
+                new SimpleMeterRegistry());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void proceedWithoutKey() throws Throwable {
+        // given
+        UseBalance.Response response = UseBalance.Response.builder().transactionId("trx1").build();
+        given(proceedingJoinPoint.proceed()).willReturn(response);
+
+        // when
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+
+        // then
+        verify(proceedingJoinPoint, times(2)).proceed();
+    }
+
+    @Test
+    void replayResponseForSameKey() throws Throwable {
+        // given
+        givenIdempotencyKey("key1");
+        UseBalance.Response response = UseBalance.Response.builder().transactionId("trx1").build();
+        given(proceedingJoinPoint.proceed()).willReturn(response);
+
+        // when
+        Object first = idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+        Object second = idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+
+        // then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        assertSame(first, second);
+    }
+
+    @Test
+    void rejectSameKeyWithDifferentBody() throws Throwable {
+        // given
+        givenIdempotencyKey("key1");
+        UseBalance.Response response = UseBalance.Response.builder().transactionId("trx1").build();
+        given(proceedingJoinPoint.proceed()).willReturn(response);
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint,
+                        new UseBalance.Request(1L, "1000000000", 2000L)));
+
+        // then
+        assertEquals(IDEMPOTENCY_KEY_REUSED, exception.getErrorCode());
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+    @Test
+    void retryAfterFailure() throws Throwable {
+        // given
+        givenIdempotencyKey("key1");
+        UseBalance.Response response = UseBalance.Response.builder().transactionId("trx1").build();
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(AMOUNT_EXCEED_BALANCE))
+                .willReturn(response);
+
+        // when
+        assertThrows(AccountException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, request));
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+
+        // then
+        verify(proceedingJoinPoint, times(2)).proceed();
+        assertSame(response, result);
+    }
+
+    @Test
+    void rejectWhileInProgress() throws Throwable {
+        // given
+        givenIdempotencyKey("key1");
+        idempotencyStore.claim("useBalance:1000000000:key1");
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, request));
+
+        // then
+        assertEquals(IDEMPOTENCY_KEY_IN_PROGRESS, exception.getErrorCode());
+        verify(proceedingJoinPoint, times(0)).proceed();
+    }
+
+    @Test
+    void claimAgainAfterInProgressLease() throws InterruptedException {
+        // given
+        assertTrue(idempotencyStore.claim("useBalance:1000000000:key1"));
+        assertFalse(idempotencyStore.claim("useBalance:1000000000:key1"));
+
+        // when
+        Thread.sleep(300);
+
+        // then
+        assertTrue(idempotencyStore.claim("useBalance:1000000000:key1"));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void givenIdempotencyKey(String key) {
+        httpRequest.addHeader(IDEMPOTENCY_KEY_HEADER, key);
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getName()).willReturn("useBalance");
+        given(methodSignature.getReturnType()).willReturn((Class) UseBalance.Response.class);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.Account.service;
+
+import com.example.Account.exception.AccountException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalLockServiceTest {
+    private final LocalLockService lockService = new LocalLockService(16, false);
+
+    @Test
+    void successGetLock() {
+        // given
+        // when
+        // then
+        assertDoesNotThrow(() -> lockService.lock("1234567890", 100L, 0L));
+        lockService.unlock("1234567890");
+    }
+
+    @Test
+    void failGetLock() {
+        // given
+        lockService.lock("1234567890", 100L, 0L);
+
+        // when
+        AccountException exception = CompletableFuture.supplyAsync(() ->
+                assertThrows(AccountException.class,
+                        () -> lockService.lock("1234567890", 100L, 0L))).join();
+
+        // then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        lockService.unlock("1234567890");
+    }
+}
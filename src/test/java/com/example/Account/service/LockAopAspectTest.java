@@ -1,20 +1,28 @@
 package com.example.Account.service;
 
+import com.example.Account.aop.AccountLock;
 import com.example.Account.dto.UseBalance;
 import com.example.Account.exception.AccountException;
 import com.example.Account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static com.example.Account.type.ErrorCode.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -23,9 +31,18 @@ class LockAopAspectTest {
     @Mock
     private LockService lockService;
 
+    @Mock
+    private LockLeasePolicy lockLeasePolicy;
+
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
+    @Mock
+    private AccountLock accountLock;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry;
+
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
@@ -40,11 +57,11 @@ class LockAopAspectTest {
                 new UseBalance.Request(123L, "1234", 1000L);
 
         // when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
 
         // then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), anyLong(), anyLong());
         verify(lockService, times(1))
                 .unlock(unlockArgumentCaptor.capture());
         assertEquals("1234", lockArgumentCaptor.getValue());
@@ -66,15 +83,53 @@ class LockAopAspectTest {
 
         // when
         assertThrows(AccountException.class, () ->
-                lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
 
         // then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), anyLong(), anyLong());
         verify(lockService, times(1))
                 .unlock(unlockArgumentCaptor.capture());
         assertEquals("54321", lockArgumentCaptor.getValue());
         assertEquals("54321", unlockArgumentCaptor.getValue());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void lockWithAnnotationWaitTimeAndPolicyLeaseTime() throws Throwable {
+        // given
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "1234", 1000L);
+        given(accountLock.tryLockTime())
+                .willReturn(3000L);
+        given(lockLeasePolicy.getLeaseTime(anyString()))
+                .willReturn(7000L);
+
+        // when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        verify(lockService, times(1))
+                .lock(eq("1234"), eq(3000L), eq(7000L));
+        verify(lockLeasePolicy, times(1))
+                .record(anyString(), anyLong());
+    }
+
+    @Test
+    void recordLockWaitFailure() {
+        // given
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "1234", 1000L);
+        willThrow(new AccountException(ACCOUNT_TRANSACTION_LOCK))
+                .given(lockService).lock(anyString(), anyLong(), anyLong());
+
+        // when
+        assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
+
+        // then
+        verify(lockService, never()).unlock(anyString());
+        assertEquals(1L, meterRegistry.get("account.lock.wait")
+                .tag("outcome", "failed").timer().count());
+    }
+}
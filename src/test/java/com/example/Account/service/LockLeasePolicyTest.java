@@ -0,0 +1,52 @@
+package com.example.Account.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LockLeasePolicyTest {
+    @Test
+    void fixedLeaseTime() {
+        // given
+        LockLeasePolicy policy = new LockLeasePolicy("fixed", 15000L, 1000L, 30000L, 3.0);
+
+        // when
+        for (int i = 0; i < 128; i++) {
+            policy.record("method", 5000L);
+        }
+
+        // then
+        assertEquals(15000L, policy.getLeaseTime("method"));
+    }
+
+    @Test
+    void adaptiveLeaseTimeFromP99() {
+        // given
+        LockLeasePolicy policy = new LockLeasePolicy("adaptive", 15000L, 1000L, 30000L, 3.0);
+
+        // when
+        for (int i = 0; i < 128; i++) {
+            policy.record("method", 2000L);
+        }
+
+        // then
+        assertEquals(6000L, policy.getLeaseTime("method"));
+        assertEquals(15000L, policy.getLeaseTime("other"));
+    }
+
+    @Test
+    void adaptiveLeaseTimeClamped() {
+        // given
+        LockLeasePolicy policy = new LockLeasePolicy("adaptive", 15000L, 1000L, 30000L, 3.0);
+
+        // when
+        for (int i = 0; i < 64; i++) {
+            policy.record("fast", 1L);
+            policy.record("slow", 20000L);
+        }
+
+        // then
+        assertEquals(1000L, policy.getLeaseTime("fast"));
+        assertEquals(30000L, policy.getLeaseTime("slow"));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.Account.service;
+
+import com.example.Account.type.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static com.example.Account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedSegmentJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoverConcurrentAppends() throws Exception {
+        // given
+        MappedSegmentJournal journal = open(1 << 20);
+        journal.recover();
+        AtomicLong sequence = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // when
+        List<Future<?>> futures = Stream.generate(() -> executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        journal.append(record(sequence.incrementAndGet(), USE, 9000));
+                    }
+                    return null;
+                }))
+                .limit(4)
+                .collect(Collectors.toList());
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        journal.close();
+
+        // then
+        MappedSegmentJournal reopened = open(1 << 20);
+        List<JournalRecord> records = reopened.recover();
+        assertEquals(400, records.size());
+        assertEquals(1, records.get(0).getSequence());
+        assertEquals(400, records.get(399).getSequence());
+        assertEquals(400, reopened.lastSequence());
+        reopened.close();
+    }
+
+    @Test
+    void groupPipelinedAppendsIntoOneSync() throws Exception {
+        // given
+        MappedSegmentJournal journal = new MappedSegmentJournal(directory.toString(), 1 << 20, 64, 200L);
+        journal.recover();
+
+        // when
+        // 한 스레드가 fsync 를 기다리지 않고 계속 쓴다 (엔진의 shard 스레드와 같은 방식)
+        List<CompletableFuture<Void>> futures = LongStream.rangeClosed(1, 1000)
+                .mapToObj(sequence -> journal.appendAsync(record(sequence, USE, 9000)))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertTrue(journal.averageGroupSize() > 1,
+                "average group size " + journal.averageGroupSize());
+        journal.close();
+        MappedSegmentJournal reopened = open(1 << 20);
+        assertEquals(1000, reopened.recover().size());
+        reopened.close();
+    }
+
+    @Test
+    void rollAndDeleteCheckpointedSegments() throws Exception {
+        // given
+        // 기록 하나가 73 바이트이므로 세그먼트당 3건
+        MappedSegmentJournal journal = open(256);
+        journal.recover();
+        for (int i = 1; i <= 7; i++) {
+            journal.append(record(i, USE, 9000));
+        }
+        assertEquals(3, segmentCount());
+
+        // when
+        journal.checkpoint(6);
+        journal.close();
+
+        // then
+        assertEquals(1, segmentCount());
+        MappedSegmentJournal reopened = open(256);
+        List<JournalRecord> records = reopened.recover();
+        assertEquals(1, records.size());
+        assertEquals(7, records.get(0).getSequence());
+        reopened.close();
+    }
+
+    @Test
+    void stopAtCorruptedRecord() throws Exception {
+        // given
+        MappedSegmentJournal journal = open(1 << 16);
+        journal.recover();
+        journal.append(record(1, USE, 9000));
+        journal.append(record(2, USE, 8000));
+        journal.append(record(3, USE, 7000));
+        journal.close();
+        corruptByte(85);
+
+        // when
+        MappedSegmentJournal reopened = open(1 << 16);
+        List<JournalRecord> records = reopened.recover();
+        reopened.append(record(4, USE, 6000));
+        reopened.close();
+
+        // then
+        assertEquals(1, records.size());
+        MappedSegmentJournal again = open(1 << 16);
+        List<JournalRecord> recovered = again.recover();
+        assertEquals(2, recovered.size());
+        assertEquals(4, recovered.get(1).getSequence());
+        again.close();
+    }
+
+    private MappedSegmentJournal open(int segmentSize) throws IOException {
+        return new MappedSegmentJournal(directory.toString(), segmentSize, 4, 100L);
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.getFileName().toString().startsWith("segment-"))
+                    .count();
+        }
+    }
+
+    private void corruptByte(long position) throws IOException {
+        Path segment;
+        try (Stream<Path> paths = Files.list(directory)) {
+            segment = paths.filter(path -> path.getFileName().toString().startsWith("segment-"))
+                    .findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, position);
+            buffer.put(0, (byte) (buffer.get(0) ^ 0xFF));
+            buffer.rewind();
+            channel.write(buffer, position);
+        }
+    }
+
+    private static JournalRecord record(long sequence, TransactionType transactionType,
+                                        long balance) {
+        return new JournalRecord(sequence, transactionType, "trx" + sequence, 1L,
+                "1000000000", 1000L, balance, LocalDateTime.of(2022, 11, 1, 10, 0), null);
+    }
+}
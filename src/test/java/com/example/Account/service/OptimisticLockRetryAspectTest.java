@@ -0,0 +1,79 @@
+package com.example.Account.service;
+
+import com.example.Account.exception.AccountException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticLockRetryAspectTest {
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private Signature signature;
+
+    private MeterRegistry meterRegistry;
+
+    private OptimisticLockRetryAspect optimisticLockRetryAspect;
+
+    @BeforeEach
+    void setUp() {
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(signature.getName()).willReturn("useBalance");
+        meterRegistry = new SimpleMeterRegistry();
+        optimisticLockRetryAspect = new OptimisticLockRetryAspect(meterRegistry, 3, 0L);
+    }
+
+    @Test
+    void retryOnOptimisticLockConflict() throws Throwable {
+        // given
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L))
+                .willReturn("result");
+
+        // when
+        Object result = optimisticLockRetryAspect.aroundMethod(
+                proceedingJoinPoint, "1234567890");
+
+        // then
+        verify(proceedingJoinPoint, times(2)).proceed();
+        assertEquals("result", result);
+        assertEquals(1.0, meterRegistry.counter("account.optimistic.lock.retry",
+                "method", "useBalance", "outcome", "retry").count());
+    }
+
+    @Test
+    void failAfterMaxAttempts() throws Throwable {
+        // given
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> optimisticLockRetryAspect.aroundMethod(
+                        proceedingJoinPoint, "1234567890"));
+
+        // then
+        verify(proceedingJoinPoint, times(3)).proceed();
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        assertEquals(2.0, meterRegistry.counter("account.optimistic.lock.retry",
+                "method", "useBalance", "outcome", "retry").count());
+        assertEquals(1.0, meterRegistry.counter("account.optimistic.lock.retry",
+                "method", "useBalance", "outcome", "exhausted").count());
+    }
+}
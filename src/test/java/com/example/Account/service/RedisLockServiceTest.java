@@ -0,0 +1,133 @@
+package com.example.Account.service;
+
+import com.example.Account.config.VirtualThreads;
+import com.example.Account.exception.AccountException;
+import com.example.Account.type.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RFuture;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import java.util.concurrent.ExecutorService;
+
+import static com.example.Account.type.ErrorCode.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisLockServiceTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock rLock;
+
+    @Mock
+    private RFuture<Void> unlockFuture;
+
+    private RedisLockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        lockService = new RedisLockService(redissonClient, 100L, false, false);
+    }
+
+    @Test
+    void successGetLock() throws InterruptedException {
+        // given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+
+        // when
+        // then
+        assertDoesNotThrow(() -> lockService.lock("123", 1000L, 15000L));
+    }
+
+    @Test
+    void failGetLock() throws InterruptedException {
+        // given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(false);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> lockService.lock("123", 1000L, 15000L));
+
+        // then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    }
+
+    @Test
+    void reuseLockHandle() throws InterruptedException {
+        // given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+
+        // when
+        lockService.lock("123", 1000L, 15000L);
+        lockService.unlock("123");
+
+        // then
+        verify(redissonClient, times(1)).getLock("ACLK123");
+        verify(rLock, times(1)).unlock();
+    }
+
+    @Test
+    void asyncUnlockWithCurrentThreadId() {
+        // given
+        RedisLockService asyncLockService =
+                new RedisLockService(redissonClient, 100L, false, true);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.unlockAsync(anyLong()))
+                .willReturn(unlockFuture);
+
+        // when
+        asyncLockService.unlock("123");
+
+        // then
+        verify(rLock, times(1)).unlockAsync(Thread.currentThread().getId());
+        verify(rLock, never()).unlock();
+    }
+
+    @Test
+    @EnabledIf("com.example.Account.config.VirtualThreads#isSupported")
+    void asyncUnlockOnVirtualThread() throws Exception {
+        // given
+        RedisLockService asyncLockService =
+                new RedisLockService(redissonClient, 100L, false, true);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(rLock.unlockAsync(anyLong()))
+                .willReturn(unlockFuture);
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-vt-");
+
+        // when
+        long threadId = executor.submit(() -> {
+            asyncLockService.lock("123", 1000L, 15000L);
+            asyncLockService.unlock("123");
+            return Thread.currentThread().getId();
+        }).get();
+        executor.shutdown();
+
+        // then
+        // 락을 잡은 가상 스레드의 id 로 해제한다
+        verify(rLock, times(1)).unlockAsync(threadId);
+        assertNotEquals(Thread.currentThread().getId(), threadId);
+    }
+}
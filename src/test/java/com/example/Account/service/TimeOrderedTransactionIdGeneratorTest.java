@@ -0,0 +1,106 @@
+package com.example.Account.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedTransactionIdGeneratorTest {
+    @Test
+    void generateTimeOrderedHexId() {
+        // given
+        TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(0x1a2b);
+        long before = System.currentTimeMillis();
+
+        // when
+        String transactionId = generator.generate();
+
+        // then
+        assertEquals(32, transactionId.length());
+        assertTrue(transactionId.matches("[0-9a-f]{32}"));
+        assertEquals("1a2b", transactionId.substring(12, 16));
+        long timestamp = Long.parseLong(transactionId.substring(0, 12), 16);
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis());
+    }
+
+    @Test
+    void generateIncreasingIds() {
+        // given
+        TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(1);
+
+        // when
+        String first = generator.generate();
+        String second = generator.generate();
+
+        // then
+        assertTrue(first.compareTo(second) < 0);
+    }
+
+    @Test
+    void generateUniqueIdsConcurrently() throws InterruptedException {
+        // given
+        TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(1);
+        Set<String> transactionIds = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    transactionIds.add(generator.generate());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // then
+        assertEquals(40_000, transactionIds.size());
+    }
+
+    @Test
+    void generateUnguessableSuffix() {
+        // given
+        TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(1);
+        Set<String> suffixes = new HashSet<>();
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            suffixes.add(generator.generate().substring(22));
+        }
+
+        // then
+        assertTrue(suffixes.size() > 1);
+    }
+
+    @Test
+    void useRandomPerThread() throws Exception {
+        // given
+        TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // when
+        SplittableRandom mine = generator.threadRandom();
+        SplittableRandom other = executor.submit(generator::threadRandom).get();
+        executor.shutdown();
+
+        // then
+        assertSame(mine, generator.threadRandom());
+        assertNotSame(mine, other);
+    }
+
+    @Test
+    void rejectTooLargeNodeId() {
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimeOrderedTransactionIdGenerator(0x10000));
+    }
+}
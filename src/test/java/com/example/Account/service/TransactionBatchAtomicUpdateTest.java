@@ -0,0 +1,81 @@
+package com.example.Account.service;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.AccountUser;
+import com.example.Account.dto.BatchTransaction;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.AccountUserRepository;
+import com.example.Account.repository.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.Account.type.AccountStatus.IN_USE;
+import static com.example.Account.type.TransactionResult.S;
+import static com.example.Account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "account.balance.atomic-update=true")
+@Import({TransactionService.class, TimeOrderedTransactionIdGenerator.class,
+        TransactionQueryCache.class, AccountPortfolioCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionBatchAtomicUpdateTest {
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    @DisplayName("원자적 잔액 갱신 - 한 계좌 배치의 거래 행이 모두 저장된다")
+    void applyBatchKeepsEveryTransaction() {
+        // given
+        AccountUser accountUser = accountUserRepository.save(
+                AccountUser.builder().name("ryu").build());
+        accountRepository.save(Account.builder()
+                .accountUser(accountUser)
+                .accountNumber("1000000000")
+                .accountStatus(IN_USE)
+                .balance(10_000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+
+        // when
+        List<TransactionDto> results = transactionService.applyBatch("1000000000", Arrays.asList(
+                useItem(accountUser.getId(), 1000L),
+                useItem(accountUser.getId(), 2000L)));
+
+        // then
+        assertEquals(2, results.size());
+        for (TransactionDto result : results) {
+            assertEquals(S, result.getTransactionResult());
+            assertTrue(transactionRepository.findByTransactionId(result.getTransactionId()).isPresent());
+        }
+        assertEquals(7_000L, accountRepository.findByAccountNumber("1000000000").get().getBalance());
+    }
+
+    private static BatchTransaction.Item useItem(Long userId, Long amount) {
+        return BatchTransaction.Item.builder()
+                .transactionType(USE)
+                .userId(userId)
+                .accountNumber("1000000000")
+                .amount(amount)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.Account.service;
+
+import com.example.Account.type.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionExportService transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        transactionExportService = new TransactionExportService(jdbcTemplate, 100);
+    }
+
+    @Test
+    void exportNdjson() throws Exception {
+        // given
+        givenRows(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        long count = transactionExportService.export(
+                LocalDate.of(2022, 11, 1), ExportFormat.NDJSON, out);
+
+        // then
+        assertEquals(2, count);
+        String row = "{\"accountNumber\":\"1000000000\",\"transactionId\":\"trxId\"," +
+                "\"transactionType\":\"USE\",\"transactionResult\":\"S\"," +
+                "\"amount\":1000,\"balanceSnapshot\":9000," +
+                "\"transactedAt\":\"2022-11-01T10:00\"}";
+        assertEquals(row + "\n" + row + "\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportCsv() throws Exception {
+        // given
+        givenRows(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        long count = transactionExportService.export(
+                LocalDate.of(2022, 11, 1), ExportFormat.CSV, out);
+
+        // then
+        assertEquals(1, count);
+        assertEquals("accountNumber,transactionId,transactionType,transactionResult," +
+                        "amount,balanceSnapshot,transactedAt\n" +
+                        "1000000000,trxId,USE,S,1000,9000,2022-11-01T10:00\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportEmptyDay() throws IOException {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        long count = transactionExportService.export(
+                LocalDate.of(2022, 11, 1), ExportFormat.NDJSON, out);
+
+        // then
+        assertEquals(0, count);
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private void givenRows(int rows) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        given(rs.getString(1)).willReturn("1000000000");
+        given(rs.getString(2)).willReturn("trxId");
+        given(rs.getString(3)).willReturn("USE");
+        given(rs.getString(4)).willReturn("S");
+        given(rs.getLong(5)).willReturn(1000L);
+        given(rs.getLong(6)).willReturn(9000L);
+        given(rs.getTimestamp(7)).willReturn(
+                Timestamp.valueOf(LocalDateTime.of(2022, 11, 1, 10, 0)));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < rows; i++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+}
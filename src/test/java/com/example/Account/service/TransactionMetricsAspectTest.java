@@ -0,0 +1,63 @@
+package com.example.Account.service;
+
+import com.example.Account.exception.AccountException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static com.example.Account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionMetricsAspectTest {
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry;
+
+    @InjectMocks
+    private TransactionMetricsAspect transactionMetricsAspect;
+
+    @Test
+    void recordSuccess() throws Throwable {
+        // given
+        given(proceedingJoinPoint.proceed())
+                .willReturn("result");
+
+        // when
+        transactionMetricsAspect.aroundUseBalance(proceedingJoinPoint);
+
+        // then
+        assertEquals(1L, meterRegistry.get("account.transaction")
+                .tag("type", "USE")
+                .tag("result", "S")
+                .tag("errorCode", "NONE")
+                .timer().count());
+    }
+
+    @Test
+    void recordFailureWithErrorCode() throws Throwable {
+        // given
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(AMOUNT_EXCEED_BALANCE));
+
+        // when
+        assertThrows(AccountException.class,
+                () -> transactionMetricsAspect.aroundCancelBalance(proceedingJoinPoint));
+
+        // then
+        assertEquals(1L, meterRegistry.get("account.transaction")
+                .tag("type", "CANCEL")
+                .tag("result", "F")
+                .tag("errorCode", "AMOUNT_EXCEED_BALANCE")
+                .timer().count());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.QueryTransactionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.Account.type.TransactionResult.S;
+import static com.example.Account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionQueryCacheTest {
+    private final TransactionQueryCache transactionQueryCache = new TransactionQueryCache(100);
+
+    @Test
+    void loadOnce() {
+        // given
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        transactionQueryCache.get("trx1", id -> {
+            loads.incrementAndGet();
+            return response(id);
+        });
+        QueryTransactionResponse cached = transactionQueryCache.get("trx1", id -> {
+            loads.incrementAndGet();
+            return response(id);
+        });
+
+        // then
+        assertEquals(1, loads.get());
+        assertEquals("trx1", cached.getTransactionId());
+    }
+
+    @Test
+    void putAfterCommit() {
+        // given
+        QueryTransactionResponse response = response("trx1");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            transactionQueryCache.putAfterCommit(response);
+            QueryTransactionResponse beforeCommit =
+                    transactionQueryCache.get("trx1", this::response);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+            // then
+            assertNotSame(response, beforeCommit);
+            assertSame(response, transactionQueryCache.get("trx1", id -> null));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evictAfterCommit() {
+        // given
+        transactionQueryCache.get("trx1", this::response);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            transactionQueryCache.evictAfterCommit("trx1");
+            QueryTransactionResponse beforeCommit = transactionQueryCache.get("trx1", id -> null);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+            // then
+            assertEquals("trx1", beforeCommit.getTransactionId());
+            QueryTransactionResponse reloaded = transactionQueryCache.get("trx1", id -> {
+                QueryTransactionResponse response = response(id);
+                response.setCancelled(true);
+                return response;
+            });
+            assertTrue(reloaded.isCancelled());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private QueryTransactionResponse response(String transactionId) {
+        return QueryTransactionResponse.builder()
+                .accountNumber("1000000000")
+                .transactionType(USE)
+                .transactionResult(S)
+                .transactionId(transactionId)
+                .amount(1000L)
+                .build();
+    }
+}
@@ -3,7 +3,11 @@ package com.example.Account.service;
 import com.example.Account.domain.Account;
 import com.example.Account.domain.AccountUser;
 import com.example.Account.domain.Transaction;
+import com.example.Account.dto.AccountOwner;
+import com.example.Account.dto.BatchTransaction;
+import com.example.Account.dto.QueryTransactionResponse;
 import com.example.Account.dto.TransactionDto;
+import com.example.Account.dto.TransactionHistory;
 import com.example.Account.exception.AccountException;
 import com.example.Account.repository.AccountRepository;
 import com.example.Account.repository.AccountUserRepository;
@@ -16,9 +20,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static com.example.Account.type.AccountStatus.*;
 import static com.example.Account.type.ErrorCode.*;
@@ -29,6 +39,9 @@ import static com.example.Account.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -46,6 +59,18 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Mock
+    private TransactionQueryCache transactionQueryCache;
+
+    @Mock
+    private AccountPortfolioCache accountPortfolioCache;
+
+    @Mock
+    private ObjectProvider<BalanceEngine> balanceEngine;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -182,6 +207,94 @@ class TransactionServiceTest {
 
     }
 
+    @Test
+    @DisplayName("잔액 사용 성공 - 조건부 UPDATE")
+    void useBalanceSuccess_atomicUpdate() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "atomicUpdate", true);
+        AccountUser accountUser = AccountUser.builder()
+                .id(12L).name("ryu").build();
+        Account account = Account.builder()
+                .id(1L)
+                .accountUser(accountUser)
+                .accountNumber("1000000012")
+                .accountStatus(IN_USE)
+                .balance(9800L)
+                .build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findOwnerByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountOwner(1L, 12L)));
+        given(accountRepository.decreaseBalance(anyString(), anyLong(), any()))
+                .willReturn(1);
+        given(accountRepository.findById(anyLong()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        TransactionDto transactionDto = transactionService.useBalance(
+                12L, "1000000012", USE_AMOUNT);
+
+        // then
+        verify(accountRepository, times(1))
+                .decreaseBalance(eq("1000000012"), eq(USE_AMOUNT), any());
+        verify(accountRepository, times(0)).findByAccountNumber(anyString());
+        assertEquals(9800L, transactionDto.getBalanceSnapshot());
+        assertEquals(USE_AMOUNT, transactionDto.getAmount());
+    }
+
+    @Test
+    @DisplayName("잔액 사용 실패 - 조건부 UPDATE 반영 행 없음")
+    void useBalanceFailed_atomicUpdateNotApplied() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "atomicUpdate", true);
+        AccountUser accountUser = AccountUser.builder()
+                .id(12L).name("ryu").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findOwnerByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountOwner(1L, 12L)));
+        given(accountRepository.decreaseBalance(anyString(), anyLong(), any()))
+                .willReturn(0);
+        given(accountRepository.findById(anyLong()))
+                .willReturn(Optional.of(Account.builder()
+                        .id(1L)
+                        .accountUser(accountUser)
+                        .accountNumber("1000000012")
+                        .accountStatus(IN_USE)
+                        .balance(100L)
+                        .build()));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(12L, "1000000012", 1000L));
+
+        // then
+        verify(transactionRepository, times(0)).save(any());
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("잔액 사용 실패 - 조건부 UPDATE, 사용자 아이디와 계좌 소유주가 다른 경우")
+    void useBalanceFailed_atomicUpdateUserUnMatch() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "atomicUpdate", true);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(AccountUser.builder()
+                        .id(12L).name("ryu").build()));
+        given(accountRepository.findOwnerByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountOwner(1L, 13L)));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(12L, "1000000012", 1000L));
+
+        // then
+        verify(accountRepository, times(0)).decreaseBalance(anyString(), anyLong(), any());
+        assertEquals(USER_ACCOUNT_UNMATCH, exception.getErrorCode());
+    }
+
     @Test
     @DisplayName("잔액 사용 취소 성공")
     void cancelBalanceSuccess() {
@@ -225,8 +338,12 @@ class TransactionServiceTest {
 
         // then
         verify(transactionRepository, times(1)).save(captor.capture());
+        verify(transactionRepository, times(1)).flush();
         assertEquals(CANCEL_AMOUNT, captor.getValue().getAmount());
         assertEquals(10000L + CANCEL_AMOUNT, captor.getValue().getBalanceSnapshot());
+        assertEquals("transactionId", captor.getValue().getCancelledTransactionId());
+        verify(transactionQueryCache, times(1)).putAfterCommit(any());
+        verify(transactionQueryCache, times(1)).evictAfterCommit("transactionId");
 
         assertEquals(S, transactionDto.getTransactionResult());
         assertEquals(CANCEL, transactionDto.getTransactionType());
@@ -234,6 +351,68 @@ class TransactionServiceTest {
         assertEquals(CANCEL_AMOUNT, transactionDto.getAmount());
     }
 
+    @Test
+    @DisplayName("잔액 사용 취소 실패 - 이미 취소된 거래")
+    void cancelBalanceFailed_AlreadyCancelled() {
+        // given
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionType(USE)
+                        .transactionResult(S)
+                        .transactionId("transactionId")
+                        .amount(CANCEL_AMOUNT)
+                        .build()));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.existsByCancelledTransactionId("transactionId"))
+                .willReturn(true);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId", "1000000012", CANCEL_AMOUNT));
+
+        // then
+        assertEquals(TRANSACTION_ALREADY_CANCELLED, exception.getErrorCode());
+        assertEquals(10000L, account.getBalance());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("잔액 사용 취소 실패 - 동시에 들어온 같은 거래의 취소")
+    void cancelBalanceFailed_ConcurrentCancel() {
+        // given
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionType(USE)
+                        .transactionResult(S)
+                        .transactionId("transactionId")
+                        .amount(CANCEL_AMOUNT)
+                        .build()));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        willThrow(new DataIntegrityViolationException("uk_transaction_cancelled_transaction_id"))
+                .given(transactionRepository).flush();
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId", "1000000012", CANCEL_AMOUNT));
+
+        // then
+        assertEquals(TRANSACTION_ALREADY_CANCELLED, exception.getErrorCode());
+    }
+
     @Test
     @DisplayName("잔액 사용 취소 실패 - 원 사용 거래 없음")
     void cancelBalanceFailed_TransactionNotFound() {
@@ -343,6 +522,66 @@ class TransactionServiceTest {
 
     }
 
+    @Test
+    @DisplayName("잔액 사용 취소 실패 - 취소 거래를 취소하는 경우")
+    void cancelBalanceFailed_CancelTransaction() {
+        // given
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionType(CANCEL)
+                        .transactionResult(S)
+                        .transactionId("transactionIdForCancel")
+                        .amount(CANCEL_AMOUNT)
+                        .build()));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionIdForCancel", "1000000012", CANCEL_AMOUNT));
+
+        // then
+        assertEquals(TRANSACTION_NOT_CANCELLABLE, exception.getErrorCode());
+        assertEquals(10000L, account.getBalance());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("잔액 사용 취소 실패 - 실패한 거래를 취소하는 경우")
+    void cancelBalanceFailed_FailedTransaction() {
+        // given
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionType(USE)
+                        .transactionResult(F)
+                        .transactionId("transactionId")
+                        .amount(CANCEL_AMOUNT)
+                        .build()));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId", "1000000012", CANCEL_AMOUNT));
+
+        // then
+        assertEquals(TRANSACTION_NOT_CANCELLABLE, exception.getErrorCode());
+        assertEquals(10000L, account.getBalance());
+        verify(transactionRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("실패 트랜잭션 저장 성공")
     void saveFailedUseBalanceSuccess() {
@@ -379,27 +618,49 @@ class TransactionServiceTest {
     }
 
     @Test
-    @DisplayName("거래 확인 성공")
-    void queryTransactionSuccess() {
+    @DisplayName("일괄 거래 - 실패 항목은 실패 거래로 저장하고 계속 처리")
+    void applyBatch_continueAfterFailedItem() {
         // given
         AccountUser ryu = AccountUser.builder()
                 .id(12L).name("ryu").build();
         Account account = Account.builder()
                 .accountUser(ryu)
                 .accountNumber("1000000012")
-                .accountStatus(AccountStatus.IN_USE)
-                .balance(10000L).build();
-        Transaction transaction = Transaction.builder()
-                .account(account)
-                .transactionType(CANCEL)
-                .transactionResult(S)
-                .transactionId("transactionId")
-                .transactedAt(LocalDateTime.now().minusYears(1))
-                .amount(CANCEL_AMOUNT)
-                .balanceSnapshot(9800L)
-                .build();
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
+                .accountStatus(IN_USE)
+                .balance(1000L).build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(ryu));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        List<TransactionDto> results = transactionService.applyBatch("1000000012",
+                Arrays.asList(
+                        BatchTransaction.Item.builder()
+                                .transactionType(USE).userId(12L)
+                                .accountNumber("1000000012").amount(5000L).build(),
+                        BatchTransaction.Item.builder()
+                                .transactionType(USE).userId(12L)
+                                .accountNumber("1000000012").amount(400L).build()));
+
+        // then
+        verify(transactionRepository, times(2)).save(any());
+        assertEquals(F, results.get(0).getTransactionResult());
+        assertEquals(AMOUNT_EXCEED_BALANCE, results.get(0).getErrorCode());
+        assertEquals(S, results.get(1).getTransactionResult());
+        assertEquals(600L, results.get(1).getBalanceSnapshot());
+    }
+
+    @Test
+    @DisplayName("거래 확인 성공")
+    void queryTransactionSuccess() {
+        // given
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(new TransactionDto(
+                        "1000000012", "transactionId", CANCEL, S,
+                        CANCEL_AMOUNT, LocalDateTime.now().minusYears(1))));
 
         // when
         TransactionDto transactionDto = transactionService.queryTransaction(("trxId"));
@@ -412,11 +673,79 @@ class TransactionServiceTest {
 
     }
 
+    @Test
+    @DisplayName("거래 확인 성공 - 잔액 엔진이 아직 저장하지 않은 거래")
+    void queryTransactionSuccess_Unflushed() {
+        // given
+        BalanceEngine engine = mock(BalanceEngine.class);
+        given(balanceEngine.getIfAvailable()).willReturn(engine);
+        given(engine.findUnflushed("trxId"))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000012")
+                        .transactionId("trxId")
+                        .transactionType(USE)
+                        .transactionResult(S)
+                        .amount(USE_AMOUNT)
+                        .build()));
+
+        // when
+        TransactionDto transactionDto = transactionService.queryTransaction("trxId");
+
+        // then
+        verify(transactionRepository, never()).findDtoByTransactionId(anyString());
+        assertEquals("trxId", transactionDto.getTransactionId());
+        assertEquals(USE, transactionDto.getTransactionType());
+    }
+
+    @Test
+    @DisplayName("거래 확인 응답 - 취소된 사용 거래")
+    void queryTransactionResponse_Cancelled() {
+        // given
+        givenQueryCacheMiss();
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(new TransactionDto(
+                        "1000000012", "transactionId", USE, S,
+                        USE_AMOUNT, LocalDateTime.now())));
+        given(transactionRepository.existsByCancelledTransactionId("transactionId"))
+                .willReturn(true);
+
+        // when
+        QueryTransactionResponse response =
+                transactionService.queryTransactionResponse("transactionId");
+
+        // then
+        assertTrue(response.isCancelled());
+        assertEquals(USE, response.getTransactionType());
+    }
+
+    @Test
+    @DisplayName("거래 확인 응답 - 잔액 엔진이 아직 저장하지 않은 취소")
+    void queryTransactionResponse_UnflushedCancel() {
+        // given
+        givenQueryCacheMiss();
+        BalanceEngine engine = mock(BalanceEngine.class);
+        given(balanceEngine.getIfAvailable()).willReturn(engine);
+        given(engine.findUnflushed("transactionId")).willReturn(Optional.empty());
+        given(engine.hasUnflushedCancel("transactionId")).willReturn(true);
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(new TransactionDto(
+                        "1000000012", "transactionId", USE, S,
+                        USE_AMOUNT, LocalDateTime.now())));
+
+        // when
+        QueryTransactionResponse response =
+                transactionService.queryTransactionResponse("transactionId");
+
+        // then
+        assertTrue(response.isCancelled());
+        verify(transactionRepository, never()).existsByCancelledTransactionId(anyString());
+    }
+
     @Test
     @DisplayName("거래 확인 실패 - 해당 transaction_id 없는 경우")
     void queryTransactionFailed_TransactionNotFount() {
         // given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findDtoByTransactionId(anyString()))
                 .willReturn(Optional.empty());
 
         // when
@@ -427,4 +756,104 @@ class TransactionServiceTest {
         assertEquals(TRANSACTION_NOT_FOUND, exception.getErrorCode());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("거래 내역 조회 성공 - 다음 페이지 커서 발급")
+    void getTransactionHistorySuccess() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        given(accountRepository.findOwnerByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountOwner(1L, 12L)));
+        given(transactionRepository.findHistory(anyString(), any(), any(),
+                any(), any(), any(), anyInt()))
+                .willReturn(Arrays.asList(
+                        TransactionHistory.Item.builder().id(3L)
+                                .transactionId("trx3").transactedAt(now).build(),
+                        TransactionHistory.Item.builder().id(2L)
+                                .transactionId("trx2").transactedAt(now.minusMinutes(1)).build(),
+                        TransactionHistory.Item.builder().id(1L)
+                                .transactionId("trx1").transactedAt(now.minusMinutes(2)).build()));
+
+        // when
+        TransactionHistory.Response response = transactionService.getTransactionHistory(
+                "1000000012", USE, null, null, null, null, 2);
+
+        // then
+        verify(transactionRepository, times(1)).findHistory(eq("1000000012"),
+                eq(USE), isNull(), isNull(), isNull(), isNull(), eq(3));
+        assertEquals(2, response.getTransactions().size());
+        assertTrue(response.isHasNext());
+        TransactionHistory.Cursor cursor =
+                TransactionHistory.Cursor.decode(response.getNextCursor());
+        assertEquals(2L, cursor.getId());
+        assertEquals(now.minusMinutes(1), cursor.getTransactedAt());
+    }
+
+    @Test
+    @DisplayName("거래 내역 조회 - 커서 이후 마지막 페이지")
+    void getTransactionHistory_LastPage() {
+        // given
+        LocalDateTime cursorAt = LocalDateTime.now();
+        given(accountRepository.findOwnerByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountOwner(1L, 12L)));
+        given(transactionRepository.findHistory(anyString(), any(), any(),
+                any(), any(), any(), anyInt()))
+                .willReturn(Arrays.asList(
+                        TransactionHistory.Item.builder().id(1L)
+                                .transactionId("trx1").transactedAt(cursorAt.minusMinutes(1)).build()));
+
+        // when
+        TransactionHistory.Response response = transactionService.getTransactionHistory(
+                "1000000012", null, null, null, null,
+                new TransactionHistory.Cursor(cursorAt, 2L).encode(), 2);
+
+        // then
+        ArgumentCaptor<TransactionHistory.Cursor> captor =
+                ArgumentCaptor.forClass(TransactionHistory.Cursor.class);
+        verify(transactionRepository, times(1)).findHistory(eq("1000000012"),
+                isNull(), isNull(), isNull(), isNull(), captor.capture(), eq(3));
+        assertEquals(cursorAt, captor.getValue().getTransactedAt());
+        assertEquals(2L, captor.getValue().getId());
+        assertEquals(1, response.getTransactions().size());
+        assertFalse(response.isHasNext());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("거래 내역 조회 실패 - 잘못된 커서")
+    void getTransactionHistoryFailed_InvalidCursor() {
+        // given
+        given(accountRepository.findOwnerByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountOwner(1L, 12L)));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.getTransactionHistory(
+                        "1000000012", null, null, null, null, "not-a-cursor", 20));
+
+        // then
+        assertEquals(INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("거래 내역 조회 실패 - 계좌 없음")
+    void getTransactionHistoryFailed_AccountNotFound() {
+        // given
+        given(accountRepository.findOwnerByAccountNumber(anyString()))
+                .willReturn(Optional.empty());
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.getTransactionHistory(
+                        "1000000012", null, null, null, null, null, 20));
+
+        // then
+        assertEquals(ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    private void givenQueryCacheMiss() {
+        given(transactionQueryCache.get(anyString(), any()))
+                .willAnswer(invocation -> invocation.<Function<String, QueryTransactionResponse>>getArgument(1)
+                        .apply(invocation.getArgument(0)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.Account.service;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.AccountUser;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.AccountUserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static com.example.Account.type.AccountStatus.IN_USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({TransactionService.class, TimeOrderedTransactionIdGenerator.class,
+        TransactionQueryCache.class, AccountPortfolioCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionStatementCountTest {
+    private static final int CALLS = 10;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("잔액 사용 1회 = 사용자 조회, 계좌 조회, 잔액 update, 거래 insert (시퀀스 호출 없음)")
+    void useBalanceStatementCount() {
+        // given
+        AccountUser accountUser = accountUserRepository.save(
+                AccountUser.builder().name("ryu").build());
+        accountRepository.save(Account.builder()
+                .accountUser(accountUser)
+                .accountNumber("1000000000")
+                .accountStatus(IN_USE)
+                .balance(100_000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        transactionService.useBalance(accountUser.getId(), "1000000000", 100L);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        for (int i = 0; i < CALLS; i++) {
+            transactionService.useBalance(accountUser.getId(), "1000000000", 100L);
+        }
+
+        // then
+        assertEquals(4L * CALLS, statistics.getPrepareStatementCount());
+    }
+}